@@ -53,5 +53,15 @@ public @interface Enumeration {
 	Class<? extends Payload>[] payload() default {};
 	
 	Class<? extends java.lang.Enum<?>> value();
+	
+	/**
+	 * match constant name ignoring case
+	 */
+	boolean ignoreCase() default false;
+	
+	/**
+	 * comma separated names are accepted, such as MySQL SET value, empty string is empty set
+	 */
+	boolean multiple() default false;
 
 }
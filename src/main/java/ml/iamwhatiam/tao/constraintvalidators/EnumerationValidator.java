@@ -23,13 +23,18 @@
  */
 package ml.iamwhatiam.tao.constraintvalidators;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 import ml.iamwhatiam.tao.constraints.Enumeration;
 
 /**
- * enumeration validator
+ * enumeration validator, constant names are collected once on initialize
  * 
  * @author iMinusMinus
  * @since 2016-12-05
@@ -38,20 +43,38 @@ import ml.iamwhatiam.tao.constraints.Enumeration;
  */
 public class EnumerationValidator implements ConstraintValidator<Enumeration, String> {
 	
-	private Class<? extends Enum<?>> enumType;
+	/**
+	 * constant names, upper case if ignore case
+	 */
+	private Set<String> names;
+	
+	private boolean ignoreCase;
+	
+	private boolean multiple;
 
 	@Override
 	public void initialize(Enumeration annotation) {
-		enumType = annotation.value();
+		ignoreCase = annotation.ignoreCase();
+		multiple = annotation.multiple();
+		Enum<?>[] constants = annotation.value().getEnumConstants();
+		Set<String> set = new HashSet<String>(constants.length * 2);
+		for(Enum<?> constant : constants)
+			set.add(ignoreCase ? constant.name().toUpperCase(Locale.ENGLISH) : constant.name());
+		names = Collections.unmodifiableSet(set);
 	}
 
 	@Override
 	public boolean isValid(String obj, ConstraintValidatorContext context) {
-		for(Enum<?> constant : enumType.getEnumConstants()) {
-			if(constant.name().equals(obj))
-				return true;
+		if(obj == null) return false;
+		if(ignoreCase) obj = obj.toUpperCase(Locale.ENGLISH);
+		if(!multiple) return names.contains(obj);
+		if(obj.length() == 0) return true;
+		for(int start = 0, end; start <= obj.length(); start = end + 1) {
+			end = obj.indexOf(',', start);
+			if(end < 0) end = obj.length();
+			if(!names.contains(obj.substring(start, end))) return false;
 		}
-		return false;
+		return true;
 	}
 
 
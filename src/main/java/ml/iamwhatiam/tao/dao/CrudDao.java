@@ -80,6 +80,13 @@ public interface CrudDao<T> {
 	*/
 	long save(T domain);
 	
+	/**
+	* persist data in batch, id of data is assigned before insert if absent
+	* @param domains data to persist
+	* @return rows affected
+	*/
+	int saveAll(List<T> domains);
+	
 	/**
 	* update fields by id
 	* @param domain fields to update and id to tell apart
@@ -0,0 +1,192 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ml.iamwhatiam.tao.util.RangeStore;
+
+/**
+ * range store backed by a table, one row per sequence:
+ * <pre>
+ * CREATE TABLE ID_RANGE (
+ *   NAME VARCHAR(64) NOT NULL PRIMARY KEY,
+ *   NEXT_VAL BIGINT NOT NULL
+ * );
+ * </pre>
+ * Block is reserved by optimistic compare-and-set on <code>NEXT_VAL</code>, so no row lock is held across statements,
+ * and any dbms works. Row of an absent sequence is inserted on first reservation.
+ * <p>
+ * Reservation must not be rolled back with business data, or ids are issued twice, 
+ * so statements run in auto-commit mode and data source should not be transaction aware: 
+ * switching a connection in transaction to auto-commit commits the transaction. 
+ * Auto-commit mode of connection is restored before it is closed.
+ * 
+ * @see ml.iamwhatiam.tao.util.HiLoAllocator
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class JdbcRangeStore implements RangeStore {
+	
+	private static Logger log = LoggerFactory.getLogger(JdbcRangeStore.class);
+	
+	private static final int MAX_ATTEMPTS = 16;
+	
+	private final DataSource dataSource;
+	
+	private final String selectSql;
+	
+	private final String updateSql;
+	
+	private final String insertSql;
+	
+	private long initialValue = 1;
+	
+	public JdbcRangeStore(DataSource dataSource) {
+		this(dataSource, "ID_RANGE", "NAME", "NEXT_VAL");
+	}
+	
+	/**
+	 * @param dataSource connection factory
+	 * @param table table name
+	 * @param nameColumn sequence name column
+	 * @param valueColumn next value column
+	 */
+	public JdbcRangeStore(DataSource dataSource, String table, String nameColumn, String valueColumn) {
+		if(dataSource == null) throw new IllegalArgumentException("data source required");
+		this.dataSource = dataSource;
+		selectSql = "SELECT " + valueColumn + " FROM " + table + " WHERE " + nameColumn + " = ?";
+		updateSql = "UPDATE " + table + " SET " + valueColumn + " = ? WHERE " + nameColumn + " = ? AND " + valueColumn + " = ?";
+		insertSql = "INSERT INTO " + table + " (" + nameColumn + ", " + valueColumn + ") VALUES (?, ?)";
+	}
+
+	public long reserve(String name, int size) {
+		if(size <= 0) throw new IllegalArgumentException("size must be positive");
+		Connection conn = null;
+		boolean autoCommit = true;
+		try {
+			conn = dataSource.getConnection();
+			autoCommit = conn.getAutoCommit();
+			if(!autoCommit) conn.setAutoCommit(true);
+			for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+				Long current = select(conn, name);
+				if(current == null) {
+					if(insert(conn, name, initialValue + size)) return initialValue;
+				} else if(update(conn, name, current.longValue(), current.longValue() + size)) {
+					return current.longValue();
+				}
+				if(log.isDebugEnabled()) log.debug("sequence [{}] changed concurrently, attempt {}", name, attempt + 1);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("reserve ids of [" + name + "] failed", e);
+		} finally {
+			close(conn, autoCommit);
+		}
+		throw new IllegalStateException("reserve ids of [" + name + "] failed after " + MAX_ATTEMPTS + " attempts");
+	}
+	
+	private Long select(Connection conn, String name) throws SQLException {
+		PreparedStatement ps = conn.prepareStatement(selectSql);
+		try {
+			ps.setString(1, name);
+			ResultSet rs = ps.executeQuery();
+			try {
+				return rs.next() ? Long.valueOf(rs.getLong(1)) : null;
+			} finally {
+				rs.close();
+			}
+		} finally {
+			ps.close();
+		}
+	}
+	
+	private boolean update(Connection conn, String name, long expect, long update) throws SQLException {
+		PreparedStatement ps = conn.prepareStatement(updateSql);
+		try {
+			ps.setLong(1, update);
+			ps.setString(2, name);
+			ps.setLong(3, expect);
+			return ps.executeUpdate() == 1;
+		} finally {
+			ps.close();
+		}
+	}
+	
+	/**
+	 * @return false if row inserted by others concurrently
+	 * @throws SQLException if insert failed but not for integrity constraint violation
+	 */
+	private boolean insert(Connection conn, String name, long nextValue) throws SQLException {
+		PreparedStatement ps = conn.prepareStatement(insertSql);
+		try {
+			ps.setString(1, name);
+			ps.setLong(2, nextValue);
+			return ps.executeUpdate() == 1;
+		} catch (SQLException e) {
+			// primary key violation: lost the race, read again
+			if(!(e instanceof SQLIntegrityConstraintViolationException) && (e.getSQLState() == null || !e.getSQLState().startsWith("23"))) throw e;
+			if(log.isDebugEnabled()) log.debug("insert sequence [{}] failed: {}", name, e.getMessage());
+			return false;
+		} finally {
+			ps.close();
+		}
+	}
+	
+	private void close(Connection conn, boolean autoCommit) {
+		if(conn == null) return;
+		try {
+			if(!autoCommit) conn.setAutoCommit(false);
+		} catch (SQLException e) {
+			log.warn("restore auto-commit failed: {}", e.getMessage());
+		}
+		try {
+			conn.close();
+		} catch (SQLException e) {
+			log.warn("close connection failed: {}", e.getMessage());
+		}
+	}
+
+	public long getInitialValue() {
+		return initialValue;
+	}
+
+	/**
+	 * @param initialValue first id of sequence absent in table
+	 */
+	public void setInitialValue(long initialValue) {
+		this.initialValue = initialValue;
+	}
+
+}
@@ -24,9 +24,8 @@
 package ml.iamwhatiam.tao.ddd;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -54,10 +53,10 @@ public final class CodeGen {
 	private static Logger log = LoggerFactory.getLogger(CodeGen.class);
 	
 	private final List<String> templates = new ArrayList<String>(
-			Arrays.asList("Controller.ftl", "ServiceImpl.ftl", "DAOImpl.ftl", "VO.ftl", "Domain.ftl",
+			Arrays.asList("Controller.ftl", "ServiceImpl.ftl", "DAOImpl.ftl", "VO.ftl", "VOJsonCodec.ftl", "Domain.ftl", "DomainJsonCodec.ftl",
 					"sqlMap.ftl", "TransformationHelper.ftl", "package-info.ftl"));
 	
-	private final List<String> directories = new ArrayList<String>(Arrays.asList("web", "service", "dao", "vo", "domain", "mapper", "support", ""));
+	private final List<String> directories = new ArrayList<String>(Arrays.asList("web", "service", "dao", "vo", "vo", "domain", "domain", "mapper", "support", ""));
 	
 	/**
 	 * generate source code or class file, or just runtime
@@ -112,8 +111,9 @@ public final class CodeGen {
 	
 	public CodeGen() {
 		policy = GeneratePolicy.SOURCE;
-		tpls = new String[] {"Controller.ftl", "ServiceImpl.ftl", "DAO.ftl", "DAOImpl.ftl", "VO.ftl", "Domain.ftl", "sqlMap.ftl", "TransformationHelper.ftl", "package-info.ftl"};
-		dirs = new String[] {"web", "service", "dao", "dao/impl", "vo", "domain", "mapper", "support", ""};
+		tpls = new String[] {"Controller.ftl", "ServiceImpl.ftl", "DAO.ftl", "DAOImpl.ftl", "VO.ftl", "VOJsonCodec.ftl", "Domain.ftl", "DomainJsonCodec.ftl", 
+				"sqlMap.ftl", "TransformationHelper.ftl", "package-info.ftl"};
+		dirs = new String[] {"web", "service", "dao", "dao/impl", "vo", "vo", "domain", "domain", "mapper", "support", ""};
 		target = "src/main/java/ml/iamwhatiam/tao/ddd";
 		withClassNamePrefix = true;
 		convension = new Convension() {
@@ -137,18 +137,21 @@ public final class CodeGen {
 			TransformationHelper.registeDataTypeMapping(dialect, dataTypeMapping);
 	}
 	
+	/**
+	 * generate code of every table in every sql file, namespace is resolved by the first table if not specified
+	 */
 	public void generate() {
 		SQLParser parser = new SQLParser(dialect);
-		FileInputStream fis;
-		try {
-			fis = new FileInputStream(new File(sqlFiles[0]));
-		} catch (FileNotFoundException e) {
-			throw new RuntimeException(String.format("file [%s] not exist", sqlFiles[0]));
+		List<Table> tables = new ArrayList<Table>();
+		for(String sqlFile : sqlFiles)
+			tables.addAll(parser.parseAll(new File(sqlFile), "UTF-8").getTables());
+		if(tables.isEmpty()) {
+			log.warn("no table found in {}", Arrays.toString(sqlFiles));
+			return;
 		}
-		Map<String, Object> root = new HashMap<String, Object>();
-		Table table = parser.parse(fis);
+		Table first = tables.get(0);
 		if(namespace == null)
-			namespace = table.getCatalog() == null ? table.getSchema() : table.getCatalog();
+			namespace = first.getCatalog() == null ? first.getSchema() : first.getCatalog();
 		if(namespace == null) {
 			log.warn("use radon namespace while namespace not find");
 			namespace = Long.toHexString(System.currentTimeMillis());
@@ -157,6 +160,14 @@ public final class CodeGen {
 			namespace = namespace.toLowerCase();
 		namespace = TransformationHelper.snake2camel(namespace);
 		target = target + File.separator + namespace + File.separator;
+		Configuration cfg = new Configuration(Configuration.VERSION_2_3_22);
+        cfg.setClassForTemplateLoading(CodeGen.class, "/ml/iamwhatiam/tao/ddd");
+        for(Table table : tables)
+        	generate(cfg, table);
+	}
+	
+	private void generate(Configuration cfg, Table table) {
+		Map<String, Object> root = new HashMap<String, Object>();
 		JavaBean bean = TransformationHelper.table2bean(table);
 		root.put("table", table);
 		root.put("bean", bean);
@@ -164,8 +175,6 @@ public final class CodeGen {
 		root.put("date", new Date());
 		root.put("config", framework.list());
 		root.put("samePackage", samePackage);
-		Configuration cfg = new Configuration(Configuration.VERSION_2_3_22);
-        cfg.setClassForTemplateLoading(CodeGen.class, "/ml/iamwhatiam/tao/ddd");
         
         for(int i = 0; i < tpls.length; i++) {
         	String tpl = tpls[i];
@@ -197,6 +206,14 @@ public final class CodeGen {
         		cfg.getTemplate(tpl).process(root, out);
 			} catch (Exception e) {
 				e.printStackTrace();
+			} finally {//one file per template per table
+				if(out != null) {
+					try {
+						out.close();
+					} catch (IOException e) {
+						log.warn("cannot close [{}]: {}", name, e.getMessage());
+					}
+				}
 			}
         }
 	}
@@ -275,6 +292,9 @@ public final class CodeGen {
 					int index = cg.templates.indexOf("VO.ftl");
 					cg.templates.remove(index);
 					cg.directories.remove(index);
+					index = cg.templates.indexOf("VOJsonCodec.ftl");
+					cg.templates.remove(index);
+					cg.directories.remove(index);
 				}
 				if((simplify & 2) != 0) {
 					int index = cg.templates.indexOf("Controller.ftl");
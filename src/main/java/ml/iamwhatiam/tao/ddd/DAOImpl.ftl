@@ -10,6 +10,8 @@ import javax.annotation.Resource;
 import org.springframework.orm.ibatis.support.SqlMapClientDaoSupport;
 import org.springframework.stereotype.Repository;
 
+import ml.iamwhatiam.tao.util.ID;
+import ml.iamwhatiam.tao.util.IdGenerator;
 <#if !samePackage>import ml.iamwhatiam.tao.ddd.${namespace}.domain.${bean.name?cap_first}Domain;</#if>
 <#if !samePackage>import ml.iamwhatiam.tao.ddd.${namespace}.dao.${bean.name?cap_first}DAO;</#if>
 
@@ -22,6 +24,8 @@ import org.springframework.stereotype.Repository;
 @Repository("${bean.name}Dao")  
 public class ${bean.name?cap_first}DAOImpl extends SqlMapClientDaoSupport implements ${bean.name?cap_first}DAO<${bean.name?cap_first}Domain> {
 
+	private IdGenerator idGenerator = ID.getGenerator();
+
 	public List<${bean.name?cap_first}Domain> findAll() {
 	    return getSqlMapClientTemplate().queryForList("ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.dao</#if>.${bean.name?cap_first}DAO.findSelective");
 	}
@@ -39,7 +43,18 @@ public class ${bean.name?cap_first}DAOImpl extends SqlMapClientDaoSupport implem
 	}
 	
 	public long save(${bean.name?cap_first}Domain domain) {
-	    return getSqlMapClientTemplate().insert("ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.dao</#if>.${bean.name?cap_first}DAO.insertSelective", domain);
+	    if(domain.getOid() == 0)
+	        domain.setOid(idGenerator.nextId());
+	    getSqlMapClientTemplate().insert("ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.dao</#if>.${bean.name?cap_first}DAO.insertSelective", domain);
+	    return domain.getOid();
+	}
+	
+	public int saveAll(List<${bean.name?cap_first}Domain> domains) {
+	    if(domains == null || domains.isEmpty()) return 0;
+	    for(${bean.name?cap_first}Domain domain : domains)
+	        if(domain.getOid() == 0)
+	            domain.setOid(idGenerator.nextId());
+	    return getSqlMapClientTemplate().update("ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.dao</#if>.${bean.name?cap_first}DAO.insertBatch", domains);
 	}
 	
 	public boolean update(${bean.name?cap_first}Domain domain) {
@@ -52,14 +67,12 @@ public class ${bean.name?cap_first}DAOImpl extends SqlMapClientDaoSupport implem
 	    return effected > 0;
 	}
 	
-	<#--
-	public int execute(List<${bean.name?cap_first}Domain> batch) {
-	    return getSqlMapClientTemplate().execute(new SqlMapClientCallback<T>(){
-	        T doInSqlMapClient(SqlMapExecutor executor) throws SQLException {
-	          //TODO
-	        }
-	    });
+	public IdGenerator getIdGenerator() {
+	    return idGenerator;
+	}
+	
+	public void setIdGenerator(IdGenerator idGenerator) {
+	    this.idGenerator = idGenerator;
 	}
-	-->
 
-} 
\ No newline at end of file
+} 
\ No newline at end of file
@@ -0,0 +1,13 @@
+<#import "pub.ftl" as software>
+<#include "codec.ftl">
+<@software.license />
+
+package ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.domain</#if>;
+
+<#-- properties of ml.iamwhatiam.tao.domain.Taichi -->
+<@codec class = bean.name?cap_first + "Domain" inherited = [
+	{"name": "oid", "type": "long"},
+	{"name": "createdBy", "type": "java.lang.String"},
+	{"name": "createdDate", "type": "java.util.Date"},
+	{"name": "lastModifiedBy", "type": "java.lang.String"},
+	{"name": "lastModifiedDate", "type": "java.util.Date"}] />
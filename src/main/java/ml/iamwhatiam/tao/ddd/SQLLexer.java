@@ -0,0 +1,558 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.ddd;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * DDL lexer: one pass over a char array, or bytes of ASCII/UTF-8 script like a mapped file, 
+ * whitespace and comments are skipped, 
+ * each {@link #next()} recognizes one token and only records its type and bounds, 
+ * text is copied only when parser asks for it.
+ * Characters beyond ASCII are taken as letters, so multi-byte UTF-8 sequence stays in one word.
+ * Lexer of a partial window throws {@link Underflow} instead of returning a token which may go on after the window.
+ * <p>
+ * Keywords are recognized by a perfect hash: a multiplier is searched once so that every keyword gets a slot of its own, 
+ * then a word is a keyword only if the single candidate in its slot equals it ignoring case.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+final class SQLLexer {
+	
+	enum Type {
+		IDENTIFIER,
+		QUOTED_IDENTIFIER,
+		KEYWORD,
+		NUMBER,
+		STRING,
+		PUNCTUATION,
+		END
+	}
+	
+	/**
+	 * words parser makes decisions on, data type words are left as identifiers
+	 */
+	enum Keyword {
+		ADD, ALTER, AUTO_INCREMENT, CHECK, COLUMN, COMMENT, CONSTRAINT, CREATE, DEFAULT, EXISTS, 
+		FOREIGN, FULLTEXT, IF, INDEX, IS, KEY, NOT, NULL, ON, ONLY, PRIMARY, REFERENCES, SPATIAL, TABLE, UNIQUE, USING;
+		
+		private final char[] chars = name().toCharArray();
+	}
+	
+	/**
+	 * window of script ends before current token is known to be complete, it should be lexed again with more input
+	 */
+	static final class Underflow extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;//thrown once per window, as control flow
+		}
+		
+	}
+	
+	private static final Underflow UNDERFLOW = new Underflow();
+	
+	/**
+	 * chars after a token looked at to complete it, like exponent sign and digit after number
+	 */
+	private static final int LOOKAHEAD = 3;
+	
+	private static final Keyword[] KEYWORDS;
+	
+	private static final int MULTIPLIER;
+	
+	private static final int MASK;
+	
+	static {
+		Keyword[] keywords = Keyword.values();
+		Keyword[] table = null;
+		int mask = Integer.highestOneBit(keywords.length) * 2 - 1;
+		int multiplier = 1;
+		while(table == null) {
+			for(multiplier = 3; multiplier < 1 << 16; multiplier += 2) {
+				if((table = place(keywords, multiplier, mask)) != null)
+					break;
+			}
+			if(table == null) mask = mask << 1 | 1;
+		}
+		KEYWORDS = table;
+		MULTIPLIER = multiplier;
+		MASK = mask;
+	}
+	
+	private final CharSequence input;
+	
+	private final int limit;
+	
+	private final Dialect dialect;
+	
+	private final char quote;
+	
+	/**
+	 * line of input start, input may be a window of script
+	 */
+	private final int line;
+	
+	/**
+	 * whether script goes on after limit
+	 */
+	private final boolean partial;
+	
+	private int position;
+	
+	private Type type;
+	
+	private Keyword keyword;
+	
+	private int start;
+	
+	private int end;
+	
+	private int last;
+	
+	/**
+	 * end of blanks and complete comments before current token
+	 */
+	private int skipped;
+	
+	SQLLexer(char[] buf, int offset, int limit, Dialect dialect) {
+		this(CharBuffer.wrap(buf), offset, limit, dialect, 1, false);
+	}
+	
+	/**
+	 * @param line line of buf start in script
+	 * @param partial whether script goes on after limit, then {@link Underflow} is thrown at limit
+	 */
+	SQLLexer(char[] buf, int offset, int limit, Dialect dialect, int line, boolean partial) {
+		this(CharBuffer.wrap(buf), offset, limit, dialect, line, partial);
+	}
+	
+	/**
+	 * @param script ASCII or UTF-8 bytes from position to limit, UTF-8 BOM is skipped
+	 */
+	SQLLexer(ByteBuffer script, Dialect dialect) {
+		this(new Utf8Sequence(script), bom(script), script.remaining(), dialect, 1, false);
+	}
+	
+	private SQLLexer(CharSequence input, int offset, int limit, Dialect dialect, int line, boolean partial) {
+		this.input = input;
+		this.limit = limit;
+		this.dialect = dialect;
+		this.quote = dialect == Dialect.MYSQL ? '`' : '"';
+		this.line = line;
+		this.partial = partial;
+		this.position = offset;
+		this.start = this.end = offset;
+	}
+	
+	/**
+	 * @return lexer of another part of the same script
+	 */
+	SQLLexer range(int offset, int limit) {
+		return new SQLLexer(input, offset, limit, dialect, line, false);
+	}
+	
+	private static int bom(ByteBuffer script) {
+		int p = script.position();
+		if(script.remaining() >= 3 && script.get(p) == (byte) 0xEF && script.get(p + 1) == (byte) 0xBB && script.get(p + 2) == (byte) 0xBF)
+			return 3;
+		return 0;
+	}
+	
+	private static Keyword[] place(Keyword[] keywords, int multiplier, int mask) {
+		Keyword[] table = new Keyword[mask + 1];
+		for(Keyword keyword : keywords) {
+			int h = 0;
+			for(char c : keyword.chars)
+				h = h * multiplier + c;
+			int slot = (h ^ h >>> 16) & mask;
+			if(table[slot] != null)
+				return null;
+			table[slot] = keyword;
+		}
+		return table;
+	}
+	
+	/**
+	 * move to next token
+	 */
+	Type next() {
+		last = end;
+		keyword = null;
+		skipSpace();
+		start = position;
+		if(position >= limit) {
+			if(partial) throw UNDERFLOW;
+			end = position;
+			return type = Type.END;
+		}
+		char c = input.charAt(position);
+		if(c == '\'' || (c == '"' && quote != '"'))
+			type = quoted(c, Type.STRING, dialect == Dialect.MYSQL);
+		else if(c == quote)
+			type = quoted(c, Type.QUOTED_IDENTIFIER, false);
+		else if(c >= '0' && c <= '9' || (c == '.' && position + 1 < limit && input.charAt(position + 1) >= '0' && input.charAt(position + 1) <= '9'))
+			type = number();
+		else if((c == 'N' || c == 'n' || c == 'E' || c == 'e' || c == 'X' || c == 'x' || c == 'B' || c == 'b')
+				&& position + 1 < limit && input.charAt(position + 1) == '\'') {//N'', E'', X'', B''
+			position++;
+			type = quoted('\'', Type.STRING, dialect == Dialect.MYSQL || c == 'E' || c == 'e');
+		}
+		else if(c == '_' || c > 0x7F || Character.isLetter(c))
+			type = word();
+		else if(c == '$' && dialect == Dialect.POSTGRES && dollar())
+			type = Type.STRING;
+		else {
+			position++;
+			type = Type.PUNCTUATION;
+		}
+		end = position;
+		if(partial && limit - end < LOOKAHEAD)
+			throw UNDERFLOW;
+		return type;
+	}
+	
+	private void skipSpace() {
+		skipped = position;
+		while(position < limit) {
+			char c = input.charAt(position);
+			if(c <= ' ' || c == '\uFEFF')
+				skipped = ++position;
+			else if((c == '-' && position + 1 < limit && input.charAt(position + 1) == '-') || (c == '#' && dialect == Dialect.MYSQL)) {
+				while(position < limit && input.charAt(position) != '\n')
+					position++;//line comment is complete at new line
+			}
+			else if(c == '/' && position + 1 < limit && input.charAt(position + 1) == '*') {
+				start = position;
+				for(position += 2; ; position++) {
+					if(position + 1 >= limit)
+						throw unclosed("comment not closed");
+					if(input.charAt(position) == '*' && input.charAt(position + 1) == '/')
+						break;
+				}
+				skipped = position += 2;
+			}
+			else break;
+		}
+	}
+	
+	/**
+	 * string literal or quoted identifier, quote in it is doubled, or escaped by backslash in mysql string and E'' string
+	 */
+	private Type quoted(char close, Type type, boolean escape) {
+		for(position++; position < limit; position++) {
+			char c = input.charAt(position);
+			if(c == '\\' && escape)
+				position++;
+			else if(c == close) {
+				if(position + 1 < limit && input.charAt(position + 1) == close)
+					position++;
+				else {
+					position++;
+					return type;
+				}
+			}
+		}
+		throw unclosed(type == Type.STRING ? "string not closed" : "identifier not closed");
+	}
+	
+	private Type number() {
+		while(position < limit && (input.charAt(position) >= '0' && input.charAt(position) <= '9' || input.charAt(position) == '.'))
+			position++;
+		if(position < limit && (input.charAt(position) == 'e' || input.charAt(position) == 'E')) {
+			int exponent = position + 1;
+			if(exponent < limit && (input.charAt(exponent) == '+' || input.charAt(exponent) == '-'))
+				exponent++;
+			if(exponent < limit && input.charAt(exponent) >= '0' && input.charAt(exponent) <= '9') {
+				position = exponent;
+				while(position < limit && input.charAt(position) >= '0' && input.charAt(position) <= '9')
+					position++;
+			}
+		}
+		return Type.NUMBER;
+	}
+	
+	/**
+	 * identifier or keyword, keyword hash is computed while scanning
+	 */
+	private Type word() {
+		int h = 0;
+		boolean ascii = true;
+		for(; position < limit; position++) {
+			char c = input.charAt(position);
+			if(!(c == '_' || c == '$' || (c == '#' && dialect != Dialect.MYSQL) || c > 0x7F || Character.isLetterOrDigit(c)))
+				break;
+			if(c >= 'a' && c <= 'z')
+				c -= 'a' - 'A';
+			else if(c > 0x7F)
+				ascii = false;
+			h = h * MULTIPLIER + c;
+		}
+		if(ascii) {
+			Keyword candidate = KEYWORDS[(h ^ h >>> 16) & MASK];
+			if(candidate != null && matches(candidate.chars)) {
+				keyword = candidate;
+				return Type.KEYWORD;
+			}
+		}
+		return Type.IDENTIFIER;
+	}
+	
+	/**
+	 * postgres dollar quoted string: $tag$...$tag$
+	 */
+	private boolean dollar() {
+		int tag = position + 1;
+		while(tag < limit && (input.charAt(tag) == '_' || Character.isLetterOrDigit(input.charAt(tag))))
+			tag++;
+		if(tag >= limit && partial)
+			throw UNDERFLOW;
+		if(tag >= limit || input.charAt(tag) != '$')
+			return false;
+		int length = tag + 1 - position;
+		for(int i = tag + 1; i + length <= limit; i++) {
+			if(input.charAt(i) == '$' && regionMatches(i, position, length)) {
+				position = i + length;
+				return true;
+			}
+		}
+		throw unclosed("string not closed");
+	}
+	
+	private boolean regionMatches(int offset, int other, int length) {
+		for(int i = 0; i < length; i++) {
+			if(input.charAt(offset + i) != input.charAt(other + i))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param word upper case
+	 */
+	private boolean matches(char[] word) {
+		if(position - start != word.length)
+			return false;
+		for(int i = 0; i < word.length; i++) {
+			char c = input.charAt(start + i);
+			if(c >= 'a' && c <= 'z')
+				c -= 'a' - 'A';
+			if(c != word[i])
+				return false;
+		}
+		return true;
+	}
+	
+	Type type() {
+		return type;
+	}
+	
+	Keyword keyword() {
+		return keyword;
+	}
+	
+	/**
+	 * @return offset of current token
+	 */
+	int start() {
+		return start;
+	}
+	
+	/**
+	 * @return offset after current token
+	 */
+	int end() {
+		return end;
+	}
+	
+	/**
+	 * @return offset after previous token
+	 */
+	int last() {
+		return last;
+	}
+	
+	boolean is(Keyword expect) {
+		return keyword == expect;
+	}
+	
+	boolean is(char punctuation) {
+		return type == Type.PUNCTUATION && input.charAt(start) == punctuation;
+	}
+	
+	/**
+	 * @param word upper case word which is not keyword
+	 */
+	boolean is(String word) {
+		if(type != Type.IDENTIFIER || end - start != word.length())
+			return false;
+		for(int i = 0; i < word.length(); i++) {
+			char c = input.charAt(start + i);
+			if(c >= 'a' && c <= 'z')
+				c -= 'a' - 'A';
+			if(c != word.charAt(i))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @return true if current token can be a name
+	 */
+	boolean isWord() {
+		return type == Type.IDENTIFIER || type == Type.QUOTED_IDENTIFIER || type == Type.KEYWORD;
+	}
+	
+	boolean isEnd() {
+		return type == Type.END || is(';');
+	}
+	
+	String text() {
+		return text(start, end);
+	}
+	
+	String text(int offset, int limit) {
+		return input.subSequence(offset, limit).toString();
+	}
+	
+	/**
+	 * @return content of current string literal
+	 */
+	String string() {
+		int offset = start;
+		while(input.charAt(offset) != '\'' && input.charAt(offset) != '"' && input.charAt(offset) != '$')
+			offset++;
+		if(input.charAt(offset) == '$') {
+			int length = 1;
+			while(input.charAt(offset + length) != '$')
+				length++;
+			return text(offset + length + 1, end - length - 1);
+		}
+		char close = input.charAt(offset);
+		boolean escape = dialect == Dialect.MYSQL || offset > start && (input.charAt(start) == 'E' || input.charAt(start) == 'e');
+		String raw = text(offset + 1, end - 1);
+		if(raw.indexOf(close) < 0 && (!escape || raw.indexOf('\\') < 0))
+			return raw;
+		StringBuilder sb = new StringBuilder(raw.length());
+		for(int i = 0; i < raw.length(); i++) {
+			char c = raw.charAt(i);
+			if(c == '\\' && escape) {
+				c = raw.charAt(++i);
+				if(c == 'n') c = '\n';
+				else if(c == 'r') c = '\r';
+				else if(c == 't') c = '\t';
+				else if(c == '0') c = '\0';
+			}
+			else if(c == close)
+				i++;
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * @return end of blanks and comments before current token, line comment going on at end of input is not included
+	 */
+	int skipped() {
+		return skipped;
+	}
+	
+	/**
+	 * @return underflow if limit is end of window, otherwise error
+	 */
+	private RuntimeException unclosed(String message) {
+		return partial ? UNDERFLOW : error(message);
+	}
+	
+	/**
+	 * @return error at current token, line and column start from 1
+	 */
+	RuntimeException error(String message) {
+		int line = this.line, column = 1;
+		for(int i = 0; i < start && i < input.length(); i++) {
+			if(input.charAt(i) == '\n') {
+				line++;
+				column = 1;
+			}
+			else column++;
+		}
+		return new RuntimeException(String.format("syntax error %d:%d, %s", line, column, message));
+	}
+	
+	/**
+	 * ASCII/UTF-8 bytes as chars without decoding: ASCII byte is the char, other byte is a char beyond ASCII, 
+	 * sub sequence is decoded as UTF-8. 
+	 * Absolute get only, so the same buffer can be read by lexers of many threads.
+	 */
+	private static final class Utf8Sequence implements CharSequence {
+		
+		private static final Charset UTF_8 = Charset.forName("UTF-8");
+		
+		private final ByteBuffer bytes;
+		
+		private final int offset;
+		
+		Utf8Sequence(ByteBuffer bytes) {
+			this.bytes = bytes;
+			this.offset = bytes.position();
+		}
+
+		public int length() {
+			return bytes.limit() - offset;
+		}
+
+		public char charAt(int index) {
+			return (char) (bytes.get(offset + index) & 0xFF);
+		}
+
+		public CharSequence subSequence(int start, int end) {
+			char[] ascii = new char[end - start];
+			for(int i = 0; i < ascii.length; i++) {
+				byte b = bytes.get(offset + start + i);
+				if(b < 0) {
+					ByteBuffer slice = bytes.duplicate();
+					slice.limit(offset + end).position(offset + start);
+					return UTF_8.decode(slice).toString();
+				}
+				ascii[i] = (char) b;
+			}
+			return new String(ascii);
+		}
+		
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+		
+	}
+
+}
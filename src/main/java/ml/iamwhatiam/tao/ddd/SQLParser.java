@@ -23,22 +23,44 @@
  */
 package ml.iamwhatiam.tao.ddd;
 
-import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ml.iamwhatiam.tao.ddd.SQLLexer.Keyword;
+
 
 /**
  * SQL parser:
  * CREATE [] table [] table_name ({column_name data_type []}[, {column_name data_type []} ...]) []
+ * <p>
+ * {@link #parse(InputStream)} accepts one table, {@link #parseAll(InputStream)} accepts a script of many tables, 
+ * {@link #parseAll(InputStream, String, Executor)} parses CREATE TABLE statements of the script concurrently.
+ * Script file of ASCII or UTF-8 is mapped into memory and lexed from its bytes, so heap is not taken by the script.
+ * <p>
+ * Parser pushes what it reads to a {@link Listener} as soon as it is parsed, or as soon as the statement is complete if script is streamed: 
+ * {@link #parse(InputStream, String, Listener)} streams a script of any size to listener in bounded memory, 
+ * tables of {@link #parse(InputStream)} and {@link #parseAll(InputStream)} are built by {@link SchemaBuilder} listener.
+ * Script is read into a char array once, and parsed from tokens of {@link SQLLexer} without going back, 
+ * except that streamed statement across end of window is lexed again after more is read.
  * 
  * @see https://dev.mysql.com/doc/refman/5.6/en/create-table.html
  * @see https://www.postgresql.org/docs/9.5/static/sql-createtable.html
@@ -51,17 +73,7 @@ import org.slf4j.LoggerFactory;
  */
 public class SQLParser {
 	
-	private static final char TAB = '\t';//0x09
-
-	private static final char CARRIAGE_RETURN = '\r';//0x0D
-
-	private static final char LINE_FEED = '\n';//0x0A
-	
-	private static final char SPACE = ' ';//0x20
-	
-	private static final char DOT = '.';
-	
-	private static final char COMMA = ',';
+	private static final int BUFFER_SIZE = 8192;
 
 	private Logger log = LoggerFactory.getLogger(SQLParser.class);
 	
@@ -69,279 +81,596 @@ public class SQLParser {
 	
 	private Dialect dialect;
 	
-	private StringBuilder sb;
+	private SQLLexer lexer;
+	
+	private Listener listener;
 	
-	private char quote;
+	/**
+	 * whether every CREATE TABLE statement is parsed, or only the first one
+	 */
+	private boolean many;
 	
-	private int position;
+	/**
+	 * whether next CREATE TABLE statement is parsed
+	 */
+	private boolean creatable;
+	
+	/**
+	 * whether {@link #table} is a {@link #placeholder(Stack) placeholder}
+	 */
+	private boolean placeholder;
+	
+	/**
+	 * constraints in definition of column being parsed
+	 */
+	private List<Table.Constraint> inline = new ArrayList<Table.Constraint>();
+	
+	private static final Listener NONE = new Listener() {
+		public void onTableStart(Table table) {}
+		public void onColumn(Table table, Table.Column column) {}
+		public void onConstraint(Table table, Table.Constraint constraint) {}
+		public void onComment(Table table, Table.Column column, String comment) {}
+		public void onTableEnd(Table table) {}
+	};
 	
 	public SQLParser(Dialect dialect) {
 		this.dialect = dialect;
-		if(dialect == Dialect.MYSQL)
-			quote = '`';
-		else quote = '"';
 	}
 	
 	public Table parse(InputStream is) {
 		return parse(is, "UTF-8");
 	}
 	
+	/**
+	 * parse first CREATE TABLE statement of script, 
+	 * then ALTER TABLE, COMMENT ON and CREATE INDEX statements of the table, other statements are skipped
+	 */
 	public Table parse(InputStream is, String charset) {
-		table = new Table(dialect);
-		BufferedReader br = null;
-		sb = new StringBuilder();
-		//remove comment
-		analyze(is, charset, br);
-		if(log.isDebugEnabled())
-			log.debug(sb.toString());
-		//keyword match
-		match(nextWord(), "CREATE");
-		parseTablePrefixInfo();
-		match(nextWord(), "TABLE");
-		//table name
-		Stack<String> names = parseTableName();
-		table.setName(names.pop());
-		if(!names.empty())
-			table.setSchema(names.pop());
-		if(!names.empty())
-			table.setCatalog(names.pop());
-		//table columns and same block constraint
-		parseColumns();
-		parseTableSuffixInfo();
-		//comment, constraint in alter clause
-		parseComment();
-		parseConstraint();
-		if(log.isDebugEnabled())
-			log.debug("accepted ddl: {}", table.toSQL());
-		return table;
+		SchemaBuilder builder = new SchemaBuilder(dialect);
+		parse(is, charset, builder, false);
+		return first(builder.getSchema());
 	}
-
-	protected void analyze(InputStream is, String charset, BufferedReader br) {
+	
+	/**
+	 * @see #parse(InputStream, String)
+	 */
+	public Table parse(File file, String charset) {
+		SchemaBuilder builder = new SchemaBuilder(dialect);
+		parse(file, charset, builder, false);
+		return first(builder.getSchema());
+	}
+	
+	private Table first(Schema schema) {
+		if(schema.getTables().isEmpty())
+			throw new RuntimeException("bad sql, no CREATE TABLE statement found");
+		return schema.getTables().get(0);
+	}
+	
+	public Schema parseAll(InputStream is) {
+		return parseAll(is, "UTF-8");
+	}
+	
+	/**
+	 * parse DDL script of many tables in one pass, {@link SchemaBuilder} builds tables from events of parser. 
+	 * 
+	 * @param is script
+	 * @param charset script charset
+	 * @return tables in order of CREATE TABLE statements
+	 */
+	public Schema parseAll(InputStream is, String charset) {
+		SchemaBuilder builder = new SchemaBuilder(dialect);
+		parse(is, charset, builder, true);
+		return builder.getSchema();
+	}
+	
+	/**
+	 * @see #parseAll(InputStream, String)
+	 */
+	public Schema parseAll(File file, String charset) {
+		SchemaBuilder builder = new SchemaBuilder(dialect);
+		parse(file, charset, builder, true);
+		return builder.getSchema();
+	}
+	
+	/**
+	 * push events of script to listener while reading it: 
+	 * only the table being created and the statement being parsed are kept, 
+	 * so memory is bounded by the longest statement, not the script.
+	 * 
+	 * @param is script
+	 * @param charset script charset
+	 * @param listener receives events in script order
+	 */
+	public void parse(InputStream is, String charset, Listener listener) {
+		parse(is, charset, listener, true);
+	}
+	
+	/**
+	 * push events of script file to listener, ASCII or UTF-8 file smaller than 2GB is mapped into memory, 
+	 * other file is read as stream
+	 * 
+	 * @see #parse(InputStream, String, Listener)
+	 */
+	public void parse(File file, String charset, Listener listener) {
+		parse(file, charset, listener, true);
+	}
+	
+	/**
+	 * @param many whether every CREATE TABLE statement is parsed, or only the first one
+	 */
+	private void parse(InputStream is, String charset, Listener listener, boolean many) {
+		Reader reader = null;
 		try {
-			boolean ignore = false;
-			boolean literal = false;
-			boolean special = false;
-			CommentType type = null;
-			br = new BufferedReader(new InputStreamReader(is, charset));
-			int current = -1;
-			int prev = -1;
-			while((current = br.read()) != -1) {
-				switch(current) {
-				case '/'://block comment end?
-					if(prev == '*' && type == CommentType.BLOCK && !literal) {
-						type = null;
-						ignore = false;
-						prev = '/';
-						continue;
-					}
-					break;
-				case '-'://line comment start
-					if(prev == '-' && !literal && !ignore) {
-						type = CommentType.LINE;
-						ignore = true;
-						sb.deleteCharAt(sb.length() - 1);
-						continue;
-					}
-					break;
-				case '\n':
-					if(ignore && type == CommentType.LINE) {
-						type = null;
-						ignore = false;
-						prev = SPACE;
-						continue;
-					}
-					break;
-				case '*'://block comment begin?
-					if(prev == '/' && !ignore && !literal) {
-						type = CommentType.BLOCK;
-						ignore = true;
-						sb.deleteCharAt(sb.length() - 1);
-						if(sb.length() - 2 > 0)
-							prev = sb.charAt(sb.length() - 2);
-						else prev = -1;
-						continue;
-					}
-					break;
-				case '\\':
-					if(!ignore)
-						special = !special;
-					break;
-				case '\''://text?
-					if(!ignore && !special)
-						literal = !literal;
-					break;
-				default:
-					if(prev == '/' && !ignore) {//syntax error: CR/*comment*/EATE 
-						if(!isSpace((char) current))
-								throw new RuntimeException("bad sql, comment should not separate keywords");
-						prev = SPACE;
-					}
-				}
-				if(isSpace((char) prev) && isSpace((char) current)) {
-					prev = SPACE;
-					continue;
-				}	
-				if(!ignore) {
-					if(isSpace((char) current) && sb.length() != 0)
-						current = SPACE;
-					sb.append((char) current);
-				}	
-				prev = current;
-			}
+			reader = new InputStreamReader(is, charset);
+			parse(reader, listener, many);
 		} catch (UnsupportedEncodingException e) {
 			log.error("bad charset", e);
 		} catch (IOException e) {
 			log.error(e.getMessage(), e);
 		} finally {
-			if(br != null) {
+			if(reader != null) {
 				try {
-					br.close();
+					reader.close();
 				} catch (IOException e) {
-					log.warn("cannot close read buffer", e);
+					log.warn("cannot close reader", e);
 				}
 			}
 		}
 	}
 	
-	public void error(int line, int position) {
-		throw new RuntimeException(String.format("syntax error %d:%d", line, position));
+	private void parse(File file, String charset, Listener listener, boolean many) {
+		if(!mappable(file, charset)) {
+			parse(open(file), charset, listener, many);
+			return;
+		}
+		this.listener = listener;
+		this.many = many;
+		this.creatable = true;
+		lexer = map(file);
+		while(lexer.type() != SQLLexer.Type.END) {
+			parseStatement();
+			skipStatement();
+			if(lexer.is(';'))
+				lexer.next();
+		}
 	}
 	
-	private String nextWord() {
-		int offset = position;
-		for(; position < sb.length(); position++) {
-			if(shouldStop(sb.charAt(position))) {
-				return sb.substring(offset, position++);
+	/**
+	 * read script into a window, statements are parsed from lexer of the window directly. 
+	 * If lexer reaches end of window in a statement, events of the statement are dropped, 
+	 * the statement is moved to window start and parsed again after more is read, window grows if one statement fills it
+	 */
+	private void parse(Reader reader, Listener listener, boolean many) throws IOException {
+		this.many = many;
+		this.creatable = true;
+		Deferred deferred = new Deferred(listener);
+		char[] buf = new char[BUFFER_SIZE];
+		int length = 0, line = 1;
+		boolean eof = false;
+		while(!eof || length > 0) {
+			while(!eof && length < buf.length) {
+				int read = reader.read(buf, length, buf.length - length);
+				if(read == -1) eof = true;
+				else length += read;
+			}
+			lexer = new SQLLexer(buf, 0, length, dialect, line, !eof);
+			this.listener = eof ? listener : deferred;
+			int consumed = 0;
+			boolean between = true, wasCreatable = creatable;
+			try {
+				lexer.next();
+				while(lexer.type() != SQLLexer.Type.END) {
+					between = false;
+					consumed = lexer.start();
+					wasCreatable = creatable;
+					parseStatement();
+					skipStatement();
+					deferred.flush();
+					between = true;
+					if(lexer.is(';')) {
+						consumed = lexer.end();
+						lexer.next();
+					}
+				}
+				consumed = length;
+			} catch (SQLLexer.Underflow e) {
+				if(between)
+					consumed = lexer.skipped();//blanks and comments before next statement
+				deferred.clear();
+				creatable = wasCreatable;
+				table = null;
+				inline.clear();
 			}
+			if(consumed == 0 && length == buf.length)
+				buf = Arrays.copyOf(buf, buf.length << 1);
+			for(int i = 0; i < consumed; i++)
+				if(buf[i] == '\n') line++;
+			System.arraycopy(buf, consumed, buf, 0, length - consumed);
+			length -= consumed;
 		}
-		if(position >= sb.length())
-			throw new RuntimeException("exceed string length");
-		return sb.substring(offset, position);
 	}
 	
-	private String nextWord(int position, int length) {
-		return nextWord(position, length, SPACE);
+	/**
+	 * parse DDL script of many tables on executor: statement bounds are found in one pass of lexer, 
+	 * CREATE TABLE statements are parsed concurrently, each by a {@link #fork() forked} parser,
+	 * then ALTER TABLE, COMMENT ON and CREATE INDEX statements are applied in script order and foreign keys are linked.
+	 * 
+	 * @param is script
+	 * @param charset script charset
+	 * @param executor runs parse of CREATE TABLE statements
+	 * @return tables in order of CREATE TABLE statements, same as {@link #parseAll(InputStream, String)}
+	 */
+	public Schema parseAll(InputStream is, String charset, Executor executor) {
+		return parseAll(read(is, charset), executor);
 	}
 	
+	/**
+	 * file of 2GB or larger cannot be held in memory, it is parsed as stream in current thread
+	 * 
+	 * @see #parseAll(InputStream, String, Executor)
+	 */
+	public Schema parseAll(File file, String charset, Executor executor) {
+		if(file.length() > Integer.MAX_VALUE) {
+			log.warn("file [{}] is too large to hold in memory, parse it in current thread", file);
+			return parseAll(file, charset);
+		}
+		if(!mappable(file, charset))
+			return parseAll(read(open(file), charset), executor);
+		return parseAll(map(file), executor);
+	}
 	
-	private String nextWord(int position, int length, char stop) {//stop: ',', '(', ')', ' '
-		int offset = position;
-		boolean quoted = false;
-		for(; position < sb.length() && position < length; position++) {
-			if(sb.charAt(position) == '\'')
-				quoted = !quoted;
-			if(shouldStop(sb.charAt(position), stop) && !quoted) {
-				return sb.substring(offset, position);
+	/**
+	 * @return whether file is ASCII or UTF-8 and smaller than 2GB
+	 */
+	private static boolean mappable(File file, String charset) {
+		return ("UTF-8".equalsIgnoreCase(charset) || "UTF8".equalsIgnoreCase(charset) || "US-ASCII".equalsIgnoreCase(charset)) 
+				&& file.length() <= Integer.MAX_VALUE;
+	}
+	
+	private Schema parseAll(SQLLexer script, Executor executor) {
+		lexer = script;
+		List<int[]> creates = new ArrayList<int[]>();
+		List<int[]> others = new ArrayList<int[]>();
+		while(lexer.type() != SQLLexer.Type.END) {
+			int offset = lexer.start();
+			boolean create = false;
+			if(lexer.is(Keyword.CREATE)) {
+				lexer.next();
+				parseTablePrefixInfo();
+				create = lexer.is(Keyword.TABLE);
+			}
+			skipStatement();
+			(create ? creates : others).add(new int[] {offset, lexer.start()});
+			if(lexer.is(';'))
+				lexer.next();
+		}
+		List<FutureTask<Table>> tasks = new ArrayList<FutureTask<Table>>(creates.size());
+		for(final int[] statement : creates) {
+			final SQLParser worker = fork();
+			worker.lexer = script.range(statement[0], statement[1]);
+			worker.listener = NONE;
+			FutureTask<Table> task = new FutureTask<Table>(new Callable<Table>() {
+				public Table call() {
+					worker.lexer.next();
+					return worker.parseCreate();
+				}
+			});
+			tasks.add(task);
+			executor.execute(task);
+		}
+		SchemaBuilder builder = new SchemaBuilder(dialect);
+		for(FutureTask<Table> task : tasks) {
+			try {
+				Table created = task.get();
+				if(created == null)
+					continue;
+				builder.onTableStart(created);
+				builder.onTableEnd(created);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for tables parsed", e);
+			} catch (ExecutionException e) {
+				if(e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new RuntimeException(e.getCause());
 			}
 		}
-		if(position >= sb.length())
-			throw new RuntimeException("exceed string length");
-		return sb.substring(offset, position);
+		listener = builder;
+		creatable = false;
+		for(int[] statement : others) {
+			lexer = script.range(statement[0], statement[1]);
+			lexer.next();
+			parseStatement();
+		}
+		return builder.getSchema();
 	}
 	
-	protected void parseTablePrefixInfo() {
-		int offset = position;
-		String notSure = nextWord();
-		while(!"TABLE".equalsIgnoreCase(notSure)) {
-			offset = position;
-			notSure = nextWord();
+	/**
+	 * @return parser of the same dialect for one statement in another thread, 
+	 * subclass overriding parse methods should return its own instance
+	 */
+	protected SQLParser fork() {
+		return new SQLParser(dialect);
+	}
+	
+	private FileInputStream open(File file) {
+		try {
+			return new FileInputStream(file);
+		} catch (FileNotFoundException e) {
+			throw new RuntimeException(String.format("file [%s] not exist", file));
 		}
-		position = offset;
 	}
 	
-	protected Stack<String> parseTableName() {
-		Stack<String> names = new Stack<String>();
-		char[] identifier = nextWord().toCharArray();
-		if(log.isDebugEnabled()) log.debug("table name to parse: {}", new String(identifier));
-		boolean quoted = false;
-		int pos = 0;
-		for(int i = 0; i < identifier.length; i++) {
-			if(identifier[i] == quote) {
-				quoted = !quoted;
+	/**
+	 * map ASCII or UTF-8 script file into memory. 
+	 * Mapping is released when it is garbage collected, not when parse ends.
+	 */
+	private SQLLexer map(File file) {
+		FileInputStream fis = open(file);
+		try {
+			FileChannel channel = fis.getChannel();
+			if(channel.size() > Integer.MAX_VALUE)
+				throw new IllegalArgumentException(String.format("file [%s] is too large to map, split it please", file));
+			MappedByteBuffer script = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			SQLLexer lexer = new SQLLexer(script, dialect);
+			lexer.next();
+			return lexer;
+		} catch (IOException e) {
+			throw new RuntimeException(String.format("cannot map file [%s]", file), e);
+		} finally {
+			try {
+				fis.close();
+			} catch (IOException e) {
+				log.warn("cannot close file", e);
 			}
-			if(identifier[i] == DOT && !quoted) {
-				names.push(new String(identifier, pos, i - pos));
-				pos = i + 1;
-				continue;
+		}
+	}
+	
+	/**
+	 * read whole script into memory
+	 */
+	private SQLLexer read(InputStream is, String charset) {
+		char[] buf = new char[BUFFER_SIZE];
+		int length = 0;
+		Reader reader = null;
+		try {
+			reader = new InputStreamReader(is, charset);
+			int read;
+			while((read = reader.read(buf, length, buf.length - length)) != -1) {
+				length += read;
+				if(length == buf.length)
+					buf = Arrays.copyOf(buf, buf.length << 1);
 			}
-			if(i == identifier.length - 1) {
-				names.push(new String(identifier, pos, i - pos + 1));
+		} catch (UnsupportedEncodingException e) {
+			log.error("bad charset", e);
+		} catch (IOException e) {
+			log.error(e.getMessage(), e);
+		} finally {
+			if(reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					log.warn("cannot close reader", e);
+				}
 			}
 		}
+		SQLLexer lexer = new SQLLexer(buf, 0, length, dialect);
+		lexer.next();
+		return lexer;
+	}
+	
+	/**
+	 * parse statement at current token, stop at its end
+	 */
+	protected void parseStatement() {
+		int offset = lexer.start();
+		if(lexer.is(Keyword.CREATE)) {
+			lexer.next();
+			parseTablePrefixInfo();
+			if(lexer.is(Keyword.TABLE) && creatable) {
+				if(parseTable() != null)
+					creatable = many;
+				table = null;
+				return;
+			}
+			if(lexer.is(Keyword.INDEX)) {
+				parseIndex();
+				return;
+			}
+		}
+		else if(lexer.is(Keyword.ALTER)) {
+			parseAlter(offset);
+			return;
+		}
+		else if(lexer.is(Keyword.COMMENT)) {
+			parseComment(offset);
+			return;
+		}
+		skipStatement();
+		skip(offset, lexer.start());
+	}
+	
+	private Table parseCreate() {
+		match(Keyword.CREATE);
+		parseTablePrefixInfo();
+		return parseTable();
+	}
+	
+	/**
+	 * CREATE TABLE statement after keyword TABLE, table options are kept in lexer
+	 * 
+	 * @return null if table is not created from column definitions, like CREATE TABLE ... AS SELECT
+	 */
+	protected Table parseTable() {
+		table = new Table(dialect);
+		placeholder = false;
+		int offset = lexer.start();
+		match(Keyword.TABLE);
+		if(lexer.is(Keyword.IF)) {
+			lexer.next();
+			match(Keyword.NOT);
+			match(Keyword.EXISTS);
+		}
+		//table name
+		Stack<String> names = parseTableName();
+		table.setName(names.pop());
+		if(!names.empty())
+			table.setSchema(names.pop());
+		if(!names.empty())
+			table.setCatalog(names.pop());
+		if(!lexer.is('(')) {
+			skipStatement();
+			skip(offset, lexer.start());
+			return null;
+		}
+		try {
+			listener.onTableStart(table);
+			//table columns and same block constraint
+			parseColumns();
+			parseTableSuffixInfo();
+		} catch (SQLLexer.Underflow e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new RuntimeException(String.format("bad ddl of table [%s]: %s", table.getName(), e.getMessage()), e);
+		}
+		if(log.isDebugEnabled())
+			log.debug("accepted ddl: {}", table.toSQL());
+		listener.onTableEnd(table);
+		return table;
+	}
+	
+	/**
+	 * table of ALTER TABLE, COMMENT ON or CREATE INDEX statement, column is created on reference, 
+	 * listener finds the created table by name
+	 */
+	private Table placeholder(Stack<String> names) {
+		table = new Table(dialect);
+		placeholder = true;
+		table.setColumns(new ArrayList<Table.Column>());
+		table.setName(names.pop());
+		if(!names.empty())
+			table.setSchema(names.pop());
+		if(!names.empty())
+			table.setCatalog(names.pop());
+		return table;
+	}
+	
+
+	public void error(int line, int position) {
+		throw new RuntimeException(String.format("syntax error %d:%d", line, position));
+	}
+	
+	/**
+	 * GLOBAL TEMPORARY, UNIQUE etc. before TABLE or INDEX
+	 */
+	protected void parseTablePrefixInfo() {
+		for(int i = 0; i < 3 && lexer.type() == SQLLexer.Type.IDENTIFIER || lexer.is(Keyword.UNIQUE); i++)
+			lexer.next();
+	}
+	
+	/**
+	 * @return [catalog, ][schema, ]table
+	 */
+	protected Stack<String> parseTableName() {
+		Stack<String> names = new Stack<String>();
+		names.push(word());
+		while(lexer.is('.')) {
+			lexer.next();
+			names.push(word());
+		}
+		if(log.isDebugEnabled()) log.debug("table name parsed: {}", names);
 		return names;
 	}
 	
 	protected void parseColumns() {
 		List<Table.Column> columns = new ArrayList<Table.Column>();
 		table.setColumns(columns);//constraint can be same block with columns!
-		int deep = 0;
-		int offset = position + 1;
-		for(; position < sb.length(); position++) {
-			if(sb.charAt(position) == '(') {
-				deep++;
-				continue;
-			}
-			if(sb.charAt(position) == ')') {
-				deep--;
-				if(deep == 0) {
-					String intro = nextWord(offset + 1, position);
-					if("PRIMARY".equalsIgnoreCase(intro) || "INDEX".equalsIgnoreCase(intro) || "CHECK".equalsIgnoreCase(intro)
-							|| "CONSTRAINT".equalsIgnoreCase(intro) || "UNIQUE".equalsIgnoreCase(intro)) {//constraint
-						parseConstraint(offset + 1, position);
-						offset = ++position;
-						break;
-					}
-					Table.Column column = parseColumn(offset, position);
-					offset = ++position;
-					columns.add(column);
-					break;
-				}
-				continue;
-			}
-			if(sb.charAt(position) == COMMA && deep == 1) {
-				String intro = nextWord(offset + 1, position);
-				if("PRIMARY".equalsIgnoreCase(intro) || "INDEX".equalsIgnoreCase(intro) || "CHECK".equalsIgnoreCase(intro)
-						|| "CONSTRAINT".equalsIgnoreCase(intro) || "UNIQUE".equalsIgnoreCase(intro)) {//constraint
-					parseConstraint(offset + 1, position);
-					offset = position + 1;
-					continue;
-				}
-				Table.Column column = parseColumn(offset, position);
-				offset = position + 1;
-				columns.add(column);
+		parseElements();
+	}
+	
+	/**
+	 * column definitions and constraints in brackets
+	 */
+	private void parseElements() {
+		match('(');
+		for(;;) {
+			if(isConstraint())
+				parseConstraint();
+			else addColumn(parseColumn());
+			if(lexer.is(')')) {
+				lexer.next();
+				break;
 			}
+			match(',');
 		}
 	}
 	
-	protected Table.Column parseColumn(int offset, int length) {
-		if(log.isDebugEnabled()) log.debug("column to parse: {}", sb.substring(offset, length));
-		if(sb.charAt(offset) == SPACE)
-			offset += 1;
-		String name = parseColumnName(offset, length);
-		Table.Column.DataType dataType = parseColumnDataType(offset + name.length() + 1, length);
+	/**
+	 * column is pushed to listener before constraints in its definition
+	 */
+	private void addColumn(Table.Column column) {
+		table.getColumns().add(column);
+		listener.onColumn(table, column);
+		if(column.getComment() != null)
+			listener.onComment(table, column, column.getComment());
+		for(Table.Constraint constraint : inline)
+			addConstraint(constraint);
+		inline.clear();
+	}
+	
+	private boolean isConstraint() {
+		if(lexer.is(Keyword.CONSTRAINT) || lexer.is(Keyword.PRIMARY) || lexer.is(Keyword.UNIQUE) 
+				|| lexer.is(Keyword.FOREIGN) || lexer.is(Keyword.CHECK))
+			return true;
+		//mysql way
+		return dialect == Dialect.MYSQL && (lexer.is(Keyword.INDEX) || lexer.is(Keyword.KEY) 
+				|| lexer.is(Keyword.FULLTEXT) || lexer.is(Keyword.SPATIAL));
+	}
+	
+	/**
+	 * column definition, constraints in it are kept in {@link #inline}
+	 */
+	protected Table.Column parseColumn() {
+		inline.clear();
+		String name = parseColumnName();
+		Table.Column.DataType dataType = parseColumnDataType();
 		Table.Column column = new Table.Column(name, dataType);
 		column.setTable(table);
 		Boolean nullable = null, autoIncrement = null;
-		String defaultValue = null, comment = null;
-		for(int start = offset + name.length() + 1; start < length; ) {
-			String unknow = nextWord(start, length);
-			start = start + unknow.length() + 1;
-			if("DEFAULT".equalsIgnoreCase(unknow)) {
-				defaultValue = nextWord(start, length);
-			}
-			else if("NOT".equalsIgnoreCase(unknow)) {
-				String tmp = nextWord(start, length);
-				start = start + tmp.length() + 1;
-				if("NULL".equalsIgnoreCase(tmp))
+		String defaultValue = null, comment = null, constraint = null;
+		while(!lexer.is(',') && !lexer.is(')') && !lexer.isEnd()) {
+			if(lexer.is(Keyword.NOT)) {
+				lexer.next();
+				if(lexer.is(Keyword.NULL)) {
+					lexer.next();
 					nullable = Boolean.FALSE;
+				}
 			}
-			else if("NULL".equalsIgnoreCase(unknow))
+			else if(lexer.is(Keyword.NULL)) {
+				lexer.next();
 				nullable = Boolean.TRUE;
-			else if("AUTO_INCREMENT".equalsIgnoreCase(unknow) && dialect == Dialect.MYSQL)
+			}
+			else if(lexer.is(Keyword.DEFAULT)) {
+				lexer.next();
+				defaultValue = parseDefaultValue();
+			}
+			else if(lexer.is(Keyword.AUTO_INCREMENT) && dialect == Dialect.MYSQL) {
+				lexer.next();
 				autoIncrement = Boolean.TRUE;
-			else if("COMMENT".equalsIgnoreCase(unknow))
-				comment = nextWord(start, length);
-				
+			}
+			else if(lexer.is(Keyword.COMMENT)) {
+				lexer.next();
+				comment = parseString();
+			}
+			else if(lexer.is(Keyword.CONSTRAINT)) {
+				lexer.next();
+				constraint = word();
+			}
+			else if(lexer.is(Keyword.PRIMARY) || lexer.is(Keyword.UNIQUE) || lexer.is(Keyword.REFERENCES) || lexer.is(Keyword.CHECK)) {
+				inline.add(parseConstraint(column, constraint));
+				constraint = null;
+			}
+			else skipToken();
 		}
 		if(nullable != null)
 			column.setNullable(nullable.booleanValue());
@@ -352,172 +681,120 @@ public class SQLParser {
 		return column;
 	}
 	
-	protected String parseColumnName(int offset, int length) {
-		return nextWord(offset, length);
+	protected String parseColumnName() {
+		return word();
+	}
+	
+	/**
+	 * literal, function call or expression in brackets, postgres type cast is not part of value
+	 */
+	private String parseDefaultValue() {
+		int offset = lexer.start();
+		if(lexer.is('-') || lexer.is('+'))
+			lexer.next();
+		if(lexer.is('('))
+			skipToken();
+		else {
+			boolean call = lexer.type() == SQLLexer.Type.IDENTIFIER;
+			lexer.next();
+			if(call && lexer.is('('))
+				skipToken();
+		}
+		String value = lexer.text(offset, lexer.last());
+		if(lexer.is(':')) {
+			while(lexer.is(':'))
+				lexer.next();
+			while(lexer.type() == SQLLexer.Type.IDENTIFIER || lexer.is('(') || lexer.is('[') || lexer.is(']'))
+				skipToken();
+		}
+		return value;
 	}
 	
-	protected Table.Column.DataType parseColumnDataType(int offset, int length) {
-		String type = nextWord(offset, length);
-		boolean enumerable = false;
-		int len = type.length();
+	protected Table.Column.DataType parseColumnDataType() {
+		String type = word().toUpperCase();
 		String[] names = null;
 		Integer precision = null, scale = null;
 		Integer intervalType = null, iPrecision = null, iScale = null;
 		Boolean withTimeZone = null;
 		Boolean unsigned = null, zerofill = null;
-		int leftBracket = type.indexOf("(");
-		int rightBracket = type.indexOf(")");
-		int comma = type.indexOf(",");
-		if(type.indexOf("[") > 0 && type.indexOf("]") > 0) {//hack for pg!
-			int dimension = 0;
-			names = new String[1];
-			names[0] = type.substring(0, type.indexOf("["));
-			for(int start = offset + type.indexOf("["); start < length; start += 2) {
-				if(sb.charAt(start) == '[' && sb.charAt(start + 1) == ']')
-					dimension++;
-				else log.error("bad data type: {}", type);
-			}
-			type = "ARRAY";
-			precision = Integer.valueOf(dimension);
+		if("LONG".equals(type) && lexer.is("RAW")) {
+			lexer.next();
+			type = "LONG RAW";
 		}
-		if(leftBracket > 0 && ("SET".equalsIgnoreCase(type.substring(0, leftBracket))
-				|| "ENUM".equalsIgnoreCase(type.substring(0, leftBracket))
-				|| "ENUMERATED".equalsIgnoreCase(type.substring(0, leftBracket))))
-			enumerable = true;
-		if(enumerable) {//enum, set
-			names = type.substring(leftBracket + 1, rightBracket).split(",");
-			type = type.substring(0, leftBracket);
-		} else {//character, number, datetime
-			if(leftBracket > 0) {
-				if(comma > 0) {
-					precision = Integer.valueOf(type.substring(leftBracket + 1, comma).trim());
-					scale = Integer.valueOf(type.substring(comma + 1, rightBracket).trim());
-				}
-				else {
-					precision = Integer.valueOf(type.substring(leftBracket + 1, rightBracket).trim());
-				}
-				type = type.substring(0, leftBracket);
-			}
+		else if("DOUBLE".equals(type) && lexer.is("PRECISION")) {
+			lexer.next();
+			type = "DOUBLE PRECISION";
 		}
-		type = type.toUpperCase();
-		
-		for(int start = offset + len + 1; start < length;) {
-			String guess = nextWord(start, length);
-			start = start + guess.length() + 1;
-			if("LONG".equals(type)) {
-				if("RAW".equalsIgnoreCase(guess))
-					type = "LONG RAW";
-			}
-			else if("DOUBLE".equals(type)) {
-				if("PRECISION".equalsIgnoreCase(guess))
-					type = "DOUBLE PRECISION";
-			}
-			else if("CHARACTER".equals(type)) {
-				if("VARING".equalsIgnoreCase(guess))
-					type = "CHARACTER VARING";
-				else if("LARGE".equalsIgnoreCase(guess)) {
-					if(start < length) {
-						guess = nextWord(start, length);
-						start = start + guess.length() + 1;
-					}	
-					if("OBJECT".equalsIgnoreCase(guess))
-						type = "CHARACTER LARGE OBJECT";
-				}
+		else if("CHARACTER".equals(type) || "BIT".equals(type) || "BINARY".equals(type)) {
+			if(lexer.is("VARYING") || lexer.is("VARING")) {
+				lexer.next();
+				type = type + " VARING";
 			}
-			else if("BIT".equals(type)) {
-				if("VARING".equalsIgnoreCase(guess))
-					type = "BIT VARING";
-			}
-			else if("BINARY".equals(type)) {
-				if("VARING".equalsIgnoreCase(guess))
-					type = "BINARY VARING";
-				else if("LARGE".equalsIgnoreCase(guess)) {
-					if(start < length) {
-						guess = nextWord(start, length);
-						start = start + guess.length() + 1;
-					}	
-					if("OBJECT".equalsIgnoreCase(guess))
-						type = "BINARY LARGE OBJECT";
-				}
+			else if(!"BIT".equals(type) && lexer.is("LARGE")) {
+				lexer.next();
+				match("OBJECT");
+				type = type + " LARGE OBJECT";
 			}
-			else if("INTERVAL".equals(type)) {
-				String prev = nextWord(start, length);
-				int __length = prev.length();
-				int lbracket = prev.indexOf("(");
-				int rbracket = prev.indexOf(")");
-				if(lbracket != -1 && rbracket != -1) {
-					iPrecision = Integer.valueOf(prev.substring(lbracket + 1, rbracket).trim());
-					prev = prev.substring(0, lbracket);
-				}
-				if("YEAR".equalsIgnoreCase(prev)) {
-					String to = nextWord(start + __length + 1, length);
-					match(to, "TO");
-					String __type = nextWord(start + __length + 1 + to.length() + 1, length);
-					match(__type, "MONTH");
-					int lb = __type.indexOf("(");
-					int rb = __type.indexOf(")");
-					if(lb != -1 && rb != -1) {
-						iScale = Integer.valueOf(__type.substring(lb + 1, rb));
-					}
-					intervalType = Integer.valueOf(0);
-				}
-				else if("DAY".equalsIgnoreCase(prev)) {
-					String to = nextWord(start + __length + 1, length);
-					match(to, "TO");
-					String __type = nextWord(start + __length + 1 + to.length() + 1, length);
-					int lb = __type.indexOf("(");
-					int rb = __type.indexOf(")");
-					if(lb != -1 && rb != -1) {
-						iScale = Integer.valueOf(__type.substring(lb + 1, rb));
-						__type = __type.substring(0, lb);
-					}
-					if("HOUR".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(1);
-					}
-					else if("MINUTE".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(2);
-					}
-					else if("SECOND".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(3);
-					}
+		}
+		if(lexer.is('(')) {
+			lexer.next();
+			if("SET".equals(type) || "ENUM".equals(type) || "ENUMERATED".equals(type)) {//enum, set
+				List<String> values = new ArrayList<String>();
+				for(; !lexer.is(')'); lexer.next()) {
+					if(lexer.isEnd())
+						throw lexer.error(String.format("bad data type: %s", type));
+					if(!lexer.is(','))
+						values.add(lexer.text());
 				}
-				else if("HOUR".equalsIgnoreCase(prev)) {
-					String to = nextWord(start + __length + 1, length);
-					match(to, "TO");
-					String __type = nextWord(start + __length + 1 + to.length() + 1, length);
-					if("MINUTE".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(4);
-					}
-					else if("SECOND".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(5);
-					}
+				names = values.toArray(new String[values.size()]);
+			} else {//character, number, datetime
+				precision = number();
+				if(lexer.is(',')) {
+					lexer.next();
+					scale = number();
 				}
-				else if("MINUTE".equalsIgnoreCase(prev)) {
-					String to = nextWord(start + __length + 1, length);
-					match(to, "TO");
-					String __type = nextWord(start + __length + 1 + to.length() + 1, length);
-					if("SECOND".equalsIgnoreCase(__type)) {
-						intervalType = Integer.valueOf(5);
-					}
+				for(; !lexer.is(')'); lexer.next()) {//length semantics, like oracle BYTE, CHAR
+					if(lexer.isEnd())
+						throw lexer.error(String.format("bad data type: %s", type));
 				}
 			}
-			else if("TIME".equals(type) || "TIMESTAMP".equals(type)) {
-				if(guess.toUpperCase().indexOf("WITH") != -1) {
-					if("WITH".equalsIgnoreCase(guess))
-						withTimeZone = Boolean.TRUE;
-					else if("WITHOUT".equalsIgnoreCase(guess))
-						withTimeZone = Boolean.FALSE;
-					String time = nextWord(start + guess.length() + 1, length);
-					match(time, "TIME");
-					match(nextWord(start + guess.length() + 6, length), "ZONE");
-				}
+			lexer.next();
+		}
+		if("INTERVAL".equals(type) && lexer.type() == SQLLexer.Type.IDENTIFIER && !lexer.is("WITH") && !lexer.is("WITHOUT")) {
+			String from = word().toUpperCase();
+			iPrecision = precision();
+			if(lexer.is("TO")) {
+				lexer.next();
+				String to = word().toUpperCase();
+				iScale = precision();
+				intervalType = interval(from, to);
 			}
-			if("UNSIGNED".equalsIgnoreCase(guess)) {
-				unsigned = true;
+		}
+		else if(("TIME".equals(type) || "TIMESTAMP".equals(type)) && (lexer.is("WITH") || lexer.is("WITHOUT"))) {
+			withTimeZone = Boolean.valueOf(lexer.is("WITH"));
+			lexer.next();
+			if(lexer.is("LOCAL"))//oracle
+				lexer.next();
+			match("TIME");
+			match("ZONE");
+		}
+		if(lexer.is('[')) {//pg array
+			names = new String[] {type};
+			int dimension = 0;
+			while(lexer.is('[')) {
+				lexer.next();
+				number();
+				match(']');
+				dimension++;
 			}
-			if("ZEROFILL".equalsIgnoreCase(guess)) {
+			type = "ARRAY";
+			precision = Integer.valueOf(dimension);
+		}
+		for(; lexer.is("UNSIGNED") || lexer.is("SIGNED") || lexer.is("ZEROFILL"); lexer.next()) {
+			if(lexer.is("UNSIGNED"))
+				unsigned = true;
+			else if(lexer.is("ZEROFILL"))
 				zerofill = true;
-			}
 		}
 		
 		Table.Column.DataType dataType = null;
@@ -615,65 +892,156 @@ public class SQLParser {
 		return dataType;
 	}
 	
-	protected void parseConstraint(int offset, int length) {
-		if(log.isDebugEnabled()) log.debug("constraint to parse: {}", sb.substring(offset, length));
-		int origin = position;
-		position = offset;
+	/**
+	 * @return interval class from start and end field
+	 */
+	private Integer interval(String from, String to) {
+		if("YEAR".equals(from)) {
+			if("MONTH".equals(to)) return Integer.valueOf(0);
+		}
+		else if("DAY".equals(from)) {
+			if("HOUR".equals(to)) return Integer.valueOf(1);
+			if("MINUTE".equals(to)) return Integer.valueOf(2);
+			if("SECOND".equals(to)) return Integer.valueOf(3);
+		}
+		else if("HOUR".equals(from)) {
+			if("MINUTE".equals(to)) return Integer.valueOf(4);
+			if("SECOND".equals(to)) return Integer.valueOf(5);
+		}
+		else if("MINUTE".equals(from)) {
+			if("SECOND".equals(to)) return Integer.valueOf(6);
+		}
+		throw lexer.error(String.format("bad interval: %s TO %s", from, to));
+	}
+	
+	/**
+	 * @return integer of current token if it is number, or null
+	 */
+	private Integer number() {
+		if(lexer.type() != SQLLexer.Type.NUMBER)
+			return null;
+		Integer number = Integer.valueOf(lexer.text());
+		lexer.next();
+		return number;
+	}
+	
+	/**
+	 * @return precision in brackets, or null if no bracket
+	 */
+	private Integer precision() {
+		if(!lexer.is('('))
+			return null;
+		lexer.next();
+		Integer precision = number();
+		match(')');
+		return precision;
+	}
+	
+	/**
+	 * table constraint, or index in mysql
+	 */
+	protected Table.Constraint parseConstraint() {
+		String name = null;
+		if(lexer.is(Keyword.CONSTRAINT)) {
+			lexer.next();
+			if(!isConstraint())
+				name = word();
+		}
 		Table.Constraint constraint = null;
-		String keyword = nextWord();
-		//mysql way
-		if("PRIMARY".equalsIgnoreCase(keyword)) {
-			match(nextWord(), "KEY");
+		if(lexer.is(Keyword.PRIMARY)) {
+			lexer.next();
+			match(Keyword.KEY);
 			constraint = table.new PrimaryKey();
 		}
-		else if("UNIQUE".equalsIgnoreCase(keyword)) {
-			match(nextWord(), "INDEX");
+		else if(lexer.is(Keyword.UNIQUE)) {
+			lexer.next();
+			if(lexer.is(Keyword.INDEX) || lexer.is(Keyword.KEY))
+				lexer.next();
 			constraint = table.new UniqueKey();
 		}
-		else if("INDEX".equalsIgnoreCase(keyword)) {
-			constraint = table.new Index();
-		}
-		else if("CONSTRAINT".equalsIgnoreCase(keyword)) {
+		else if(lexer.is(Keyword.FOREIGN)) {
+			lexer.next();
+			match(Keyword.KEY);
 			constraint = table.new ForeignKey();
 		}
-		else if("CHECK".equalsIgnoreCase(keyword)) {
+		else if(lexer.is(Keyword.CHECK)) {
+			lexer.next();
 			constraint = table.new Check();
 		}
-		if(sb.charAt(position) != '(') {//may not exist!
-			String name = nextWord();
-			constraint.setName(name);
+		else if(lexer.is(Keyword.INDEX) || lexer.is(Keyword.KEY) || lexer.is(Keyword.FULLTEXT) || lexer.is(Keyword.SPATIAL)) {
+			if(lexer.is(Keyword.FULLTEXT) || lexer.is(Keyword.SPATIAL))
+				lexer.next();
+			if(lexer.is(Keyword.INDEX) || lexer.is(Keyword.KEY))
+				lexer.next();
+			constraint = table.new Index();
 		}
-		if(constraint instanceof Table.ForeignKey) {
-			match(nextWord(), "FOREIGN");
-			match(nextWord(), "KEY");
+		else throw lexer.error(String.format("constraint expected, but actual is [%s]", lexer.text()));
+		if(lexer.isWord() && !lexer.is(Keyword.USING)) {//may not exist!
+			String index = word();
+			if(name == null) name = index;
 		}
+		if(name != null)
+			constraint.setName(name);
 		if(constraint instanceof Table.Check) {
-			parseCheck((Table.Check) constraint);
+			parseCheck((Table.Check) constraint, null);
 		}
 		else {
-			String[] columnNames = findColumnNames();
-			Table.Column[] columns = new Table.Column[columnNames.length];
-			for(int i = 0; i < columnNames.length; i++)
-				columns[i] = findColumn(columnNames[i]);
-			constraint.setColumns(columns);
+			if(constraint instanceof Table.Index)
+				parseIndex((Table.Index) constraint);
+			constraint.setColumns(findColumns(parseColumnNames()));
+			if(constraint instanceof Table.Index)
+				parseIndex((Table.Index) constraint);
 		}
 		if(constraint instanceof Table.ForeignKey) {
 			parseForeignKey((Table.ForeignKey) constraint);
 		}
-		else if(constraint instanceof Table.Index) {
-			parseIndex((Table.Index) constraint);
-		}
+		skipClause();
 		addConstraint(constraint);//common process
-		position = origin;
+		return constraint;
+	}
+	
+	/**
+	 * constraint in column definition, added after column
+	 */
+	protected Table.Constraint parseConstraint(Table.Column column, String name) {
+		Table.Constraint constraint = null;
+		if(lexer.is(Keyword.PRIMARY)) {
+			lexer.next();
+			match(Keyword.KEY);
+			constraint = table.new PrimaryKey();
+		}
+		else if(lexer.is(Keyword.UNIQUE)) {
+			lexer.next();
+			if(lexer.is(Keyword.KEY))
+				lexer.next();
+			constraint = table.new UniqueKey();
+		}
+		else if(lexer.is(Keyword.REFERENCES)) {
+			constraint = table.new ForeignKey();
+		}
+		else {
+			match(Keyword.CHECK);
+			constraint = table.new Check();
+		}
+		if(name != null)
+			constraint.setName(name);
+		if(constraint instanceof Table.Check) {
+			parseCheck((Table.Check) constraint, column);
+		}
+		else constraint.setColumns(new Table.Column[] {column});
+		if(constraint instanceof Table.ForeignKey) {
+			parseForeignKey((Table.ForeignKey) constraint);
+		}
+		return constraint;
 	}
 	
 	protected void addConstraint(Table.Constraint constaint) {
 		table.addConstraint(constaint);
+		listener.onConstraint(table, constaint);
 	}
 	
 	protected void parseForeignKey(Table.ForeignKey fk) {
-		position++;
-		match(nextWord(), "REFERENCES");
+		match(Keyword.REFERENCES);
 		Table reference = new Table(dialect);
 		Stack<String> names = parseTableName();
 		reference.setName(names.pop());
@@ -681,44 +1049,49 @@ public class SQLParser {
 			reference.setSchema(names.pop());
 		if(!names.empty())
 			reference.setCatalog(names.pop());
-		String[] columnNames = findColumnNames();
+		String[] columnNames = lexer.is('(') ? parseColumnNames() : new String[0];
 		Table.Column[] columns = new Table.Column[columnNames.length];
 		for(int i = 0; i < columnNames.length; i++) {
-			columns[i] = new Table.Column(columnNames[i], fk.getColumns()[i].getDataType());
+			Table.Column column = i < fk.getColumns().length ? fk.getColumns()[i] : null;
+			columns[i] = new Table.Column(columnNames[i], column == null ? null : column.getDataType());
 			columns[i].setTable(reference);
 		}
 		fk.setReferences(columns);
 	}
 	
 	protected void parseIndex(Table.Index index) {
-		String guess = nextWord();
-		if("USING".equalsIgnoreCase(guess)) {
-			index.setAlgorithm(nextWord());
+		if(lexer.is(Keyword.USING)) {
+			lexer.next();
+			index.setAlgorithm(word());
 		}
 	}
 	
-	protected void parseCheck(Table.Check check) {
-		int deep = 0, lb = 0, rb = 0;
-		boolean quoted = false;
-		for(; position < sb.length(); position++) {
-			if(sb.charAt(position) == '(' && !quoted) {
-				if(deep == 0) lb = position;
+	/**
+	 * search condition in brackets
+	 * 
+	 * @param column column being defined for check in column definition, 
+	 * or null for table constraint, then column is the first one in condition
+	 */
+	protected void parseCheck(Table.Check check, Table.Column column) {
+		if(!lexer.is('('))
+			throw lexer.error(String.format("[(] expected, but actual is [%s]", lexer.text()));
+		int offset = lexer.end(), limit = offset, deep = 0;
+		do {
+			if(lexer.isEnd())
+				throw lexer.error("check condition not closed");
+			if(lexer.is('('))
 				deep++;
-			}	
-			else if(sb.charAt(position) == ')' && !quoted) {
+			else if(lexer.is(')'))
 				deep--;
-				if(deep == 0) {
-					rb = position;
-					Table.Column[] clumns = new Table.Column[1];
-					clumns[0] = findColumn(nextWord(lb + 1, rb - 1));
-					check.setColumns(clumns);
-					check.setSearchCondition(sb.substring(lb + 1, rb));
-					break;
-				}
-			}
-			else if(sb.charAt(position) == '\'')
-				quoted = !quoted;
-		}
+			else if(column == null && (lexer.type() == SQLLexer.Type.IDENTIFIER || lexer.type() == SQLLexer.Type.QUOTED_IDENTIFIER))
+				column = findColumn(lexer.text());
+			limit = lexer.start();
+			lexer.next();
+		} while(deep > 0);
+		Table.Column[] clumns = new Table.Column[1];
+		clumns[0] = column;
+		check.setColumns(clumns);
+		check.setSearchCondition(lexer.text(offset, limit));
 	}
 	
 	/**
@@ -726,256 +1099,377 @@ public class SQLParser {
 	 * param=value
 	 */
 	protected void parseTableSuffixInfo() {
-		String total = nextWord(position, sb.length(), ';');
-		int length = position + total.length();
-		while(position < length) {
-			String param = nextWord(position, length, '=');//mysql
-			position = position + param.length() + 1;
-			if(sb.charAt(position) == ' ') position++;
-			String value = nextWord(position, sb.length());
-			if("COMMENT".equalsIgnoreCase(param.trim()))
-				table.setComment(value);
-			position = position + value.length() + 1;
-
+		while(!lexer.isEnd()) {
+			if(lexer.is(Keyword.COMMENT)) {//mysql
+				lexer.next();
+				if(lexer.is('='))
+					lexer.next();
+				table.setComment(parseString());
+				listener.onComment(table, null, table.getComment());
+			}
+			else skipToken();
 		}
-		position = length + 1;
 	}
 	
-	protected void parseComment() {
-		if(position < sb.length() && sb.charAt(position) == SPACE)
-			position++;
-		if(position == sb.length())//maybe not exist!
-			return;
-		int offset = position;
-		String test = nextWord();
-		if(!"COMMENT".equalsIgnoreCase(test)) {
-			position = offset;
-			if("ALTER".equalsIgnoreCase(test) || "CREATE".equalsIgnoreCase(test))
-				parseConstraint();
-			else skip(offset);
+	/**
+	 * COMMENT ON TABLE or COMMENT ON COLUMN
+	 * 
+	 * @param offset start of statement
+	 */
+	protected void parseComment(int offset) {
+		match(Keyword.COMMENT);
+		match(Keyword.ON);
+		boolean column = lexer.is(Keyword.COLUMN);
+		if(!column && !lexer.is(Keyword.TABLE)) {
+			skipStatement();
+			skip(offset, lexer.start());
 			return;
 		}
-		match(nextWord(), "ON");
-		String type = nextWord();
-		if("TABLE".equalsIgnoreCase(type))
-			parseTableComment();
-		else if("COLUMN".equalsIgnoreCase(type))
-			parseColumnComment();
-		position++;
-		if(position < sb.length())
-			parseComment();
-	}
-	
-	protected void parseTableComment() {
+		lexer.next();
 		Stack<String> names = parseTableName();
-		match(Table.unquote(names.pop()), table.getName());
-		match(nextWord(), "IS");
-		table.setComment(nextWord());
-	}
-	
-	protected void parseColumnComment() {
-		Stack<String> names = parseTableName();
-		String columnName = Table.unquote(names.pop());
-		match(Table.unquote(names.pop()), table.getName());
-		match(nextWord(), "IS");
-		for(Table.Column column : table.getColumns()) {
-			if(column.getName().equals(columnName))
-				column.setComment(nextWord());
+		String columnName = column ? names.pop() : null;
+		if(names.empty())
+			throw lexer.error("table of column not specified");
+		placeholder(names);
+		match(Keyword.IS);
+		String comment = parseString();
+		Table.Column target = null;
+		if(!column)
+			table.setComment(comment);
+		else {
+			target = findColumn(columnName);
+			target.setComment(comment);
 		}
+		listener.onComment(table, target, comment);
+		table = null;
 	}
 	
-	protected void parseConstraint() {
-		if(position < sb.length() && sb.charAt(position) == SPACE)
-			position++;
-		if(position == sb.length())//maybe not exist!
+	/**
+	 * ALTER TABLE ... ADD constraint or column
+	 * 
+	 * @param offset start of statement
+	 */
+	protected void parseAlter(int offset) {
+		match(Keyword.ALTER);
+		if(!lexer.is(Keyword.TABLE)) {
+			skipStatement();
+			skip(offset, lexer.start());
 			return;
-		int offset = position;
-		String test = nextWord();
-		if("CREATE".equalsIgnoreCase(test)) {
-			parseIndex();
-			position++;
-		}
-		else if("ALTER".equalsIgnoreCase(test)) {
-			match(nextWord(), "TABLE");
-			Stack<String> names = parseTableName();
-			match(Table.unquote(names.pop()), table.getName());
-			String tmp = nextWord();
-			if(!"ADD".equalsIgnoreCase(tmp)) {
-				skip(offset);
-				return;
-			}
-			match(nextWord(), "CONSTRAINT");
-			String unknow = nextWord();
-			String name = null;
-			Table.Constraint constraint = null;
-			if(!"PRIMARY".equalsIgnoreCase(unknow) && !"UNIQUE".equalsIgnoreCase(unknow) 
-					&& !"FOREIGN".equalsIgnoreCase(unknow) && !"CHECK".equalsIgnoreCase(unknow)) {
-				name = unknow;
-				unknow = nextWord();
-			}
-			if("PRIMARY".equalsIgnoreCase(unknow)) {
-				match(nextWord(), "KEY");
-				constraint = table.new PrimaryKey();
-			}
-			else if("UNIQUE".equalsIgnoreCase(unknow)) {
-				if(sb.charAt(position) != '(')
-					match(nextWord(), "INDEX");
-				constraint = table.new UniqueKey();
-			}
-			else if("FOREIGN".equalsIgnoreCase(unknow)) {
-				match(nextWord(), "KEY");
-				constraint = table.new ForeignKey();
-			}
-			else if("CHECK".equalsIgnoreCase(unknow)) {
-				constraint = table.new Check();
-			}
-			constraint.setName(name);
-			if("CHECK".equalsIgnoreCase(unknow)) {
-				parseCheck((Table.Check) constraint);
-			} else {
-				String[] columnNames = findColumnNames();
-				Table.Column[] columns = new Table.Column[columnNames.length];
-				for(int i = 0; i <  columnNames.length; i++) {
-					columns[i] = findColumn(columnNames[i]);
-				}
-				constraint.setColumns(columns);
-			}
-			if("FOREIGN".equalsIgnoreCase(unknow)) {
-				if(position < sb.length() && sb.charAt(position) == SPACE)
-					position++;
-				match(nextWord(), "REFERENCES");
-				Table reference = new Table(dialect);
-				reference.setName(parseTableName().pop());
-				String[] refColumns = findColumnNames();
-				Table.Column[] cols = new Table.Column[refColumns.length];
-				for(int i = 0; i <  refColumns.length; i++) {
-					cols[i] = new Table.Column(refColumns[i], constraint.getColumns()[i].getDataType());
-					cols[i].setTable(reference);
+		}
+		lexer.next();
+		if(lexer.is(Keyword.IF)) {
+			lexer.next();
+			match(Keyword.EXISTS);
+		}
+		if(lexer.is(Keyword.ONLY))
+			lexer.next();
+		placeholder(parseTableName());
+		for(;;) {
+			if(lexer.is(Keyword.ADD)) {
+				lexer.next();
+				if(lexer.is('('))//oracle
+					parseElements();
+				else if(isConstraint())
+					parseConstraint();
+				else {
+					if(lexer.is(Keyword.COLUMN))
+						lexer.next();
+					addColumn(parseColumn());
 				}
-				((Table.ForeignKey) constraint).setReferences(cols);
 			}
-			addConstraint(constraint);
-			position++;
-		}
-		else if("COMMENT".equalsIgnoreCase(test)){
-			position = offset;
-			parseComment();
-			return;
-		} 
-		else {
-			skip(offset);
+			skipClause();
+			if(!lexer.is(','))
+				break;
+			lexer.next();
 		}
-		if(position < sb.length())
-			parseConstraint();
+		table = null;
 	}
 	
+	/**
+	 * CREATE INDEX statement at keyword INDEX
+	 */
 	protected void parseIndex() {
-		String test = nextWord();
-		if("UNIQUE".equalsIgnoreCase(test))
-			test = nextWord();
-		if(!"INDEX".equalsIgnoreCase(test)) {//synonym
-			skip();
-			return;
+		match(Keyword.INDEX);
+		if(lexer.is("CONCURRENTLY"))//pg
+			lexer.next();
+		if(lexer.is(Keyword.IF)) {
+			lexer.next();
+			match(Keyword.NOT);
+			match(Keyword.EXISTS);
 		}
-		Table.Index index = table.new Index();
-		String unknow = nextWord();
-		if(!"ON".equalsIgnoreCase(unknow)) {
-			index.setName(unknow);
-			match(nextWord(), "ON");
-		}
-		Stack<String> names = parseTableName();
-		match(Table.unquote(names.pop()), table.getName());
-		if(sb.charAt(position) != '(') {
-			String guess = nextWord();
-			if("USING".equalsIgnoreCase(guess))
-				index.setAlgorithm(nextWord());
+		String indexName = null, algorithm = null;
+		if(!lexer.is(Keyword.ON))
+			indexName = word();
+		if(lexer.is(Keyword.USING)) {//mysql
+			lexer.next();
+			algorithm = word();
 		}
-		String[] columnNames = findColumnNames();
-		Table.Column[] columns = new Table.Column[columnNames.length];
-		for(int i = 0; i <  columnNames.length; i++) {
-			columns[i] = findColumn(columnNames[i]);
-		}
-		index.setColumns(columns);
-		table.addIndex(index);
+		match(Keyword.ON);
+		if(lexer.is(Keyword.ONLY))
+			lexer.next();
+		placeholder(parseTableName());
+		Table.Index index = table.new Index();
+		if(indexName != null)
+			index.setName(indexName);
+		if(algorithm != null)
+			index.setAlgorithm(algorithm);
+		parseIndex(index);
+		index.setColumns(findColumns(parseColumnNames()));
+		addConstraint(index);
+		table = null;
 	}
 	
-	private boolean isSpace(char c) {
-		return c == SPACE || c == LINE_FEED || c == CARRIAGE_RETURN || c == TAB;
+	/**
+	 * @return text of current name, then move to next token
+	 */
+	private String word() {
+		if(!lexer.isWord())
+			throw lexer.error(String.format("name expected, but actual is [%s]", lexer.text()));
+		String word = lexer.text();
+		lexer.next();
+		return word;
+	}
+	
+	/**
+	 * @return content of string literal, or null for NULL
+	 */
+	private String parseString() {
+		if(lexer.is(Keyword.NULL)) {
+			lexer.next();
+			return null;
+		}
+		if(lexer.type() != SQLLexer.Type.STRING)
+			throw lexer.error(String.format("string expected, but actual is [%s]", lexer.text()));
+		String value = lexer.string();
+		lexer.next();
+		return value;
 	}
 	
-	private boolean shouldStop(char c) {
-		return shouldStop(c, SPACE);
+	private void match(Keyword expect) {
+		if(!lexer.is(expect))
+			throw lexer.error(String.format("keyword [%s] expected, but actual is [%s]", expect, lexer.text()));
+		lexer.next();
 	}
 	
-	private boolean shouldStop(char actual, char expect) {
-		return actual == expect;
+	private void match(String expect) {
+		if(!lexer.is(expect))
+			throw lexer.error(String.format("keyword [%s] expected, but actual is [%s]", expect, lexer.text()));
+		lexer.next();
 	}
 	
-	private void match(String actual, String expect) {
-		if(!actual.equalsIgnoreCase(expect))
-			throw new RuntimeException(String.format("syntax error, keyword [%s] expected, but actual is [%s]", expect, actual));
+	private void match(char expect) {
+		if(!lexer.is(expect))
+			throw lexer.error(String.format("[%s] expected, but actual is [%s]", expect, lexer.text()));
+		lexer.next();
 	}
 	
-	private String[] findColumnNames() {
+	/**
+	 * (column [length] [ASC|DESC], ...)
+	 */
+	private String[] parseColumnNames() {
 		List<String> columnNames = new ArrayList<String>();
-		int deep = 0, offset = position + 1;
-		for(; position < sb.length(); position++) {
-			if(sb.charAt(position) == '(') {
-				deep++;
+		match('(');
+		for(;;) {
+			columnNames.add(word());
+			while(!lexer.is(',') && !lexer.is(')')) {
+				if(lexer.isEnd())
+					throw lexer.error("column list not closed");
+				skipToken();
 			}
-			if(sb.charAt(position) == ')') {
-				deep--;
-				if(deep == 0) {
-					columnNames.add(sb.substring(offset, position++).trim());
-					break;
-				}
-			}
-			if(sb.charAt(position) == ',') {
-				columnNames.add(sb.substring(offset, position).trim());
-				offset = position + 1;
+			if(lexer.is(')')) {
+				lexer.next();
+				break;
 			}
+			lexer.next();
 		}
-		String[] result = new String[columnNames.size()];
-		return columnNames.toArray(result);
+		return columnNames.toArray(new String[columnNames.size()]);
 	}
 	
+	private Table.Column[] findColumns(String[] names) {
+		Table.Column[] columns = new Table.Column[names.length];
+		for(int i = 0; i < names.length; i++)
+			columns[i] = findColumn(names[i]);
+		return columns;
+	}
+	
+	/**
+	 * column of placeholder is created when it is referenced first, listener replaces it with column of created table
+	 */
 	private Table.Column findColumn(String name) {
-		return findColumn(name, table);
+		Table.Column column = findColumn(name, table);
+		if(column == null && placeholder) {
+			column = new Table.Column(name, null);
+			column.setTable(table);
+			table.getColumns().add(column);
+		}
+		else if(column == null)
+			log.error("column [{}] not find", name);
+		return column;
 	}
 	
-	private Table.Column findColumn(String name, Table table) {
+	/**
+	 * @param name column name, may be quoted
+	 * @return column or null
+	 */
+	static Table.Column findColumn(String name, Table table) {
+		String unquoted = Table.unquote(name);
 		for(Table.Column column : table.getColumns()) {
-			if(column.getName().equals(Table.unquote(name)) || (dialect != Dialect.POSTGRES && column.getName().equalsIgnoreCase(Table.unquote(name))))
+			if(column.getName().equals(unquoted) || (table.getDialect() != Dialect.POSTGRES && column.getName().equalsIgnoreCase(unquoted)))
 				return column;
 		}
-		log.error("column [{}] not find", name);
 		return null;
 	}
 	
-	private void skip() {
-		int offset = position;
-		for(; position < sb.length(); position++) {
-			if(sb.charAt(position) == ';') {
-				position++;
-				break;
-			}	
+	/**
+	 * move to next token, token in brackets are skipped together
+	 */
+	private void skipToken() {
+		if(!lexer.is('(')) {
+			lexer.next();
+			return;
 		}
-		skip(offset, position);
+		int deep = 0;
+		do {
+			if(lexer.isEnd())
+				throw lexer.error("bracket not closed");
+			if(lexer.is('('))
+				deep++;
+			else if(lexer.is(')'))
+				deep--;
+			lexer.next();
+		} while(deep > 0);
+	}
+	
+	/**
+	 * skip rest of column definition or constraint
+	 */
+	private void skipClause() {
+		while(!lexer.is(',') && !lexer.is(')') && !lexer.isEnd())
+			skipToken();
 	}
 	
-	private void skip(int start) {
-		position = start;
-		skip();
+	private void skipStatement() {
+		while(!lexer.isEnd())
+			lexer.next();
 	}
 	
 	private void skip(int start, int end) {
 		if(log.isDebugEnabled())
-			log.debug("skip some ddl information: {}", sb.substring(start, end));
+			log.debug("skip some ddl information: {}", lexer.text(start, end));
 	}
-	
-	private enum CommentType {
-		LINE,
-		BLOCK
+
+	/**
+	 * keeps events of the statement being parsed from a window, 
+	 * they are delivered when the statement is complete, or dropped if window ends in the statement
+	 */
+	private static final class Deferred implements Listener {
+		
+		private static final int TABLE_START = 0, COLUMN = 1, CONSTRAINT = 2, COMMENT = 3, TABLE_END = 4;
+		
+		private final Listener target;
+		
+		private final List<Event> events = new ArrayList<Event>();
+		
+		Deferred(Listener target) {
+			this.target = target;
+		}
+		
+		public void onTableStart(Table table) {
+			events.add(new Event(TABLE_START, table, null, null, null));
+		}
+		
+		public void onColumn(Table table, Table.Column column) {
+			events.add(new Event(COLUMN, table, column, null, null));
+		}
+		
+		public void onConstraint(Table table, Table.Constraint constraint) {
+			events.add(new Event(CONSTRAINT, table, null, constraint, null));
+		}
+		
+		public void onComment(Table table, Table.Column column, String comment) {
+			events.add(new Event(COMMENT, table, column, null, comment));
+		}
+		
+		public void onTableEnd(Table table) {
+			events.add(new Event(TABLE_END, table, null, null, null));
+		}
+		
+		void flush() {
+			for(Event event : events) {
+				switch(event.kind) {
+				case TABLE_START: target.onTableStart(event.table); break;
+				case COLUMN: target.onColumn(event.table, event.column); break;
+				case CONSTRAINT: target.onConstraint(event.table, event.constraint); break;
+				case COMMENT: target.onComment(event.table, event.column, event.comment); break;
+				default: target.onTableEnd(event.table);
+				}
+			}
+			events.clear();
+		}
+		
+		void clear() {
+			events.clear();
+		}
+		
+		private static final class Event {
+			
+			private final int kind;
+			
+			private final Table table;
+			
+			private final Table.Column column;
+			
+			private final Table.Constraint constraint;
+			
+			private final String comment;
+			
+			Event(int kind, Table table, Table.Column column, Table.Constraint constraint, String comment) {
+				this.kind = kind;
+				this.table = table;
+				this.column = column;
+				this.constraint = constraint;
+				this.comment = comment;
+			}
+			
+		}
+		
+	}
+
+	/**
+	 * receives what parser reads, in script order. 
+	 * Table of ALTER TABLE, COMMENT ON and CREATE INDEX statements is a placeholder of the same name, 
+	 * not the created one, and it has only columns referenced by the statement.
+	 * 
+	 * @see SchemaBuilder
+	 */
+	public interface Listener {
+		
+		/**
+		 * name of table is known, columns are coming
+		 */
+		void onTableStart(Table table);
+		
+		/**
+		 * column definition, in CREATE TABLE or ALTER TABLE statement
+		 */
+		void onColumn(Table table, Table.Column column);
+		
+		/**
+		 * primary key, unique key, foreign key, check or index
+		 */
+		void onConstraint(Table table, Table.Constraint constraint);
+		
+		/**
+		 * @param column null if comment is for table
+		 * @param comment unquoted comment
+		 */
+		void onComment(Table table, Table.Column column, String comment);
+		
+		/**
+		 * all columns and constraints in CREATE TABLE statement are pushed
+		 */
+		void onTableEnd(Table table);
+		
 	}
 
 }
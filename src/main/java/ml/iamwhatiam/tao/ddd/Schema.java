@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.ddd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * tables of one DDL script, in script order
+ * 
+ * @see SQLParser#parseAll(java.io.InputStream)
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class Schema {
+	
+	private final Dialect dialect;
+	
+	private final List<Table> tables = new ArrayList<Table>();
+	
+	/**
+	 * by {@link #key(Dialect, String, String, String) qualified key}
+	 */
+	private final Map<String, Table> names = new HashMap<String, Table>();
+	
+	/**
+	 * by key of unqualified table name, value is null if tables of the same name are in different schemas
+	 */
+	private final Map<String, Table> simpleNames = new HashMap<String, Table>();
+	
+	public Schema(Dialect dialect) {
+		this.dialect = dialect;
+	}
+	
+	/**
+	 * identifier is case sensitive only in postgres, as {@link SQLParser} finds column
+	 */
+	static String key(Dialect dialect, String name) {
+		return dialect == Dialect.POSTGRES ? name : name.toUpperCase();
+	}
+	
+	/**
+	 * key of [catalog.][schema.]name, parts are joined by '\0' which is not in any identifier
+	 */
+	static String key(Dialect dialect, String catalog, String schema, String name) {
+		String key = key(dialect, name);
+		if(schema != null) key = key(dialect, schema) + '\0' + key;
+		if(catalog != null) key = key(dialect, catalog) + '\0' + key;
+		return key;
+	}
+	
+	static String key(Dialect dialect, Table table) {
+		return key(dialect, table.getCatalog(), table.getSchema(), table.getName());
+	}
+
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	public List<Table> getTables() {
+		return tables;
+	}
+	
+	/**
+	 * @param name unquoted table name, without schema
+	 * @return table created without schema, or the only table of the name in all schemas, or null
+	 */
+	public Table getTable(String name) {
+		return getTable(null, null, name);
+	}
+	
+	/**
+	 * @param catalog unquoted catalog name, or null
+	 * @param schema unquoted schema name, or null
+	 * @param name unquoted table name
+	 * @return table of the qualified name, or table by {@link #getTable(String) unqualified name} if neither catalog nor schema is specified, 
+	 * or null
+	 */
+	public Table getTable(String catalog, String schema, String name) {
+		Table table = names.get(key(dialect, catalog, schema, name));
+		if(table == null && catalog == null && schema == null)
+			table = simpleNames.get(key(dialect, name));
+		return table;
+	}
+	
+	/**
+	 * table of the same qualified name is replaced in place
+	 */
+	public void addTable(Table table) {
+		Table previous = names.put(key(dialect, table), table);
+		if(previous == null)
+			tables.add(table);
+		else tables.set(tables.indexOf(previous), table);
+		String simple = key(dialect, table.getName());
+		if(!simpleNames.containsKey(simple) || previous != null && simpleNames.get(simple) == previous)
+			simpleNames.put(simple, table);
+		else if(previous == null)
+			simpleNames.put(simple, null);
+	}
+
+}
@@ -0,0 +1,210 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.ddd;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * build {@link Schema} from events of {@link SQLParser}. 
+ * Events of ALTER TABLE, COMMENT ON and CREATE INDEX statements are applied to the created table of the same qualified name, 
+ * they are kept until the table is created if statement is before CREATE TABLE statement.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class SchemaBuilder implements SQLParser.Listener {
+	
+	private Logger log = LoggerFactory.getLogger(SchemaBuilder.class);
+	
+	private final Schema schema;
+	
+	/**
+	 * table of CREATE TABLE statement being parsed, it is built by parser
+	 */
+	private Table current;
+	
+	/**
+	 * events of tables not created yet, by {@link Schema#key(Dialect, Table) qualified key} of table
+	 */
+	private final Map<String, List<Event>> pending = new LinkedHashMap<String, List<Event>>();
+	
+	private boolean built;
+	
+	public SchemaBuilder(Dialect dialect) {
+		schema = new Schema(dialect);
+	}
+
+	public void onTableStart(Table table) {
+		current = table;
+	}
+
+	public void onColumn(Table table, Table.Column column) {
+		if(table != current)
+			apply(new Event(table, column, null, null));
+	}
+
+	public void onConstraint(Table table, Table.Constraint constraint) {
+		if(table != current)
+			apply(new Event(table, null, constraint, null));
+	}
+
+	public void onComment(Table table, Table.Column column, String comment) {
+		if(table != current)
+			apply(new Event(table, column, null, comment));
+	}
+
+	public void onTableEnd(Table table) {
+		current = null;
+		Dialect dialect = schema.getDialect();
+		String key = Schema.key(dialect, table);
+		Table previous = schema.getTable(table.getCatalog(), table.getSchema(), table.getName());
+		if(previous != null && key.equals(Schema.key(dialect, previous)))
+			log.warn("table [{}] created more than once, use the last one", table.getName());
+		schema.addTable(table);
+		apply(table, pending.remove(key));
+		String simple = Schema.key(dialect, table.getName());
+		// unqualified statements belong to qualified table if it is the only one of the name
+		if(!simple.equals(key) && schema.getTable(table.getName()) == table)
+			apply(table, pending.remove(simple));
+	}
+	
+	private void apply(Table target, List<Event> events) {
+		if(events == null)
+			return;
+		for(Event event : events)
+			apply(target, event);
+	}
+	
+	/**
+	 * @return tables in order of CREATE TABLE statements, foreign keys are linked to referenced tables
+	 */
+	public Schema getSchema() {
+		if(!built) {
+			for(List<Event> orphan : pending.values())
+				log.warn("table [{}] not created in script, statements ignored", orphan.get(0).table.getName());
+			pending.clear();
+			link();
+			built = true;
+		}
+		return schema;
+	}
+	
+	private void apply(Event event) {
+		Table target = schema.getTable(event.table.getCatalog(), event.table.getSchema(), event.table.getName());
+		if(target != null) {
+			apply(target, event);
+			return;
+		}
+		String key = Schema.key(schema.getDialect(), event.table);
+		List<Event> events = pending.get(key);
+		if(events == null) {
+			events = new ArrayList<Event>();
+			pending.put(key, events);
+		}
+		events.add(event);
+	}
+	
+	/**
+	 * columns of placeholder table are replaced by columns of the same name in target table
+	 */
+	private void apply(Table target, Event event) {
+		if(event.constraint != null) {
+			Table.Column[] columns = event.constraint.getColumns();
+			for(int i = 0; columns != null && i < columns.length; i++)
+				columns[i] = columns[i] == null ? null : find(target, columns[i].getName());
+			target.addConstraint(event.constraint);
+		}
+		else if(event.comment != null) {
+			if(event.column == null)
+				target.setComment(event.comment);
+			else {
+				Table.Column column = find(target, event.column.getName());
+				if(column != null)
+					column.setComment(event.comment);
+			}
+		}
+		else {
+			event.column.setTable(target);
+			target.getColumns().add(event.column);
+		}
+	}
+	
+	private Table.Column find(Table table, String name) {
+		Table.Column column = SQLParser.findColumn(name, table);
+		if(column == null)
+			log.error("column [{}] not find", name);
+		return column;
+	}
+	
+	/**
+	 * replace foreign key references with columns of referenced table if it is in schema
+	 */
+	private void link() {
+		for(Table t : schema.getTables()) {
+			if(t.getFks() == null) continue;
+			for(Table.ForeignKey fk : t.getFks()) {
+				Table.Column[] references = fk.getReferences();
+				if(references == null || references.length == 0) continue;
+				Table reference = references[0].getTable();
+				Table target = schema.getTable(reference.getCatalog(), reference.getSchema(), reference.getName());
+				if(target == null) continue;
+				for(int i = 0; i < references.length; i++) {
+					Table.Column column = SQLParser.findColumn(references[i].getName(), target);
+					if(column != null) references[i] = column;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * column, constraint or comment of ALTER TABLE, COMMENT ON or CREATE INDEX statement
+	 */
+	private static class Event {
+		
+		private final Table table;
+		
+		private final Table.Column column;
+		
+		private final Table.Constraint constraint;
+		
+		private final String comment;
+		
+		Event(Table table, Table.Column column, Table.Constraint constraint, String comment) {
+			this.table = table;
+			this.column = column;
+			this.constraint = constraint;
+			this.comment = comment;
+		}
+		
+	}
+
+}
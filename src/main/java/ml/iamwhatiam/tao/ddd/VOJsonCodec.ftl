@@ -0,0 +1,12 @@
+<#import "pub.ftl" as software>
+<#include "codec.ftl">
+<@software.license />
+
+package ml.iamwhatiam.tao.ddd.${namespace}<#if !samePackage>.vo</#if>;
+
+<#-- properties of ml.iamwhatiam.tao.vo.Form -->
+<@codec class = bean.name?cap_first + "VO" inherited = [
+	{"name": "epoch", "type": "java.util.Date"},
+	{"name": "elapse", "type": "java.util.Date"},
+	{"name": "oid", "type": "java.lang.String"},
+	{"name": "alt", "type": "java.lang.String"}] />
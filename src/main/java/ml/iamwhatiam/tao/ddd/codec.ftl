@@ -0,0 +1,132 @@
+<#function constant name>
+	<#return name?replace("([a-z0-9])([A-Z])", "$1_$2", "r")?upper_case>
+</#function>
+<#function kind type>
+	<#if type == "int" || type == "long" || type == "double" || type == "boolean" || type == "java.lang.String" || type == "java.util.Date">
+		<#return software.getSimpleName(type)>
+	<#else>
+		<#return "other">
+	</#if>
+</#function>
+<#-- JSON codec of class, inherited properties first, then bean properties not inherited -->
+<#macro codec class inherited>
+<#local properties = inherited>
+<#list bean.properties as property>
+<#local overridden = false>
+<#list inherited as parent><#if parent.name == property.name><#local overridden = true></#if></#list>
+<#if !overridden><#local properties = properties + [property]></#if>
+</#list>
+<#local reflective = false>
+<#list properties as property><#if kind(property.type) == "other"><#local reflective = true></#if></#list>
+import java.io.IOException;
+<#if reflective>
+import java.lang.reflect.Type;
+</#if>
+import java.util.Date;
+
+import ml.iamwhatiam.tao.util.JsonCodec;
+import ml.iamwhatiam.tao.util.JsonReader;
+import ml.iamwhatiam.tao.util.JsonWriter;
+<#if reflective>
+import ml.iamwhatiam.tao.util.PropertyAccessor;
+</#if>
+<#if bean.imports??>
+<#list bean.imports as im>
+<#if im != "java.util.Date">
+import ${im};
+</#if>
+</#list>
+</#if>
+
+/**
+ * JSON codec of {@link ${class}}, property names are escaped once
+ *
+ * @author iMinusMinus
+ * @since ${date?string('yyyy-MM-dd')}
+ * @version 0.0.1
+ *
+ */
+public class ${class}JsonCodec implements JsonCodec<${class}> {
+	<#list properties as property>
+	
+	private static final char[] N_${constant(property.name)} = JsonWriter.quote("${property.name}");
+	</#list>
+	
+	private static final char[][] PROPERTY_NAMES = {
+		<#list properties as property>
+		"${property.name}".toCharArray()<#sep>,</#sep>
+		</#list>
+	};
+	<#list properties as property>
+	<#if kind(property.type) == "other">
+	
+	private static final Type T_${constant(property.name)} = PropertyAccessor.of(${class}.class).getProperty("${property.name}").getGenericType();
+	</#if>
+	</#list>
+	
+	public void write(JsonWriter writer, ${class} value) throws IOException {
+		writer.beginObject();
+		<#list properties as property>
+		<#local getter><#if property.type == "boolean">is<#else>get</#if>${property.name?cap_first}</#local>
+		<#switch kind(property.type)>
+		<#case "int">
+		<#case "long">
+		<#case "double">
+		<#case "boolean">
+		writer.name(N_${constant(property.name)}).value(value.${getter}());
+		<#break>
+		<#case "String">
+		if(value.${getter}() != null) writer.name(N_${constant(property.name)}).value(value.${getter}());
+		<#break>
+		<#case "Date">
+		if(value.${getter}() != null) writer.name(N_${constant(property.name)}).value(value.${getter}().getTime());
+		<#break>
+		<#default>
+		if(value.${getter}() != null) writer.name(N_${constant(property.name)}).value((Object) value.${getter}());
+		</#switch>
+		</#list>
+		writer.endObject();
+	}
+	
+	public ${class} read(JsonReader reader) throws IOException {
+		${class} value = new ${class}();
+		reader.beginObject();
+		while(reader.hasNext()) {
+			switch(reader.nextName(PROPERTY_NAMES)) {
+			<#list properties as property>
+			<#local setter = "value.set" + property.name?cap_first>
+			case ${property?index}:
+				<#switch kind(property.type)>
+				<#case "int">
+				if(!reader.nextIfNull()) ${setter}(reader.nextInt());
+				<#break>
+				<#case "long">
+				if(!reader.nextIfNull()) ${setter}(reader.nextLong());
+				<#break>
+				<#case "double">
+				if(!reader.nextIfNull()) ${setter}(reader.nextDouble());
+				<#break>
+				<#case "boolean">
+				if(!reader.nextIfNull()) ${setter}(reader.nextBoolean());
+				<#break>
+				<#case "String">
+				${setter}(reader.nextIfNull() ? null : reader.nextString());
+				<#break>
+				<#case "Date">
+				${setter}(reader.nextIfNull() ? null : new Date(reader.nextLong()));
+				<#break>
+				<#default>
+				${setter}((${software.getSimpleName(property.type)}) reader.read(T_${constant(property.name)}));
+				</#switch>
+				break;
+			</#list>
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return value;
+	}
+ 
+}
+</#macro>
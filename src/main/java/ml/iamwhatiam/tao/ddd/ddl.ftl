@@ -1,9 +1,16 @@
+<#-- comment is kept unquoted, quote it as string literal, backslash is escape character in MySQL -->
+<#function literal text backslash>
+	<#if backslash>
+		<#return "'" + text?replace("\\", "\\\\")?replace("'", "''") + "'">
+	</#if>
+	<#return "'" + text?replace("'", "''") + "'">
+</#function>
 <#switch table.dialect>
 <#case "MySQL">
 <#-- from HeidiSQL-->
 CREATE TABLE `${table.name}` (
     <#list table.columns as column>
-    `${column.name}` ${column.dataType?toSQL} <#if !column.nullable>NOT </#if>NULL<#if column.defaultValue??> DEFAULT ${column.defaultValue}</#if><#if column.comment??> COMMENT ${column.comment}<#/if><#if column?has_next || table.pk?? || table.fks?? || table.uks?? || table.indexes??>,</#if>
+    `${column.name}` ${column.dataType?toSQL} <#if !column.nullable>NOT </#if>NULL<#if column.defaultValue??> DEFAULT ${column.defaultValue}</#if><#if column.comment??> COMMENT ${literal(column.comment, true)}<#/if><#if column?has_next || table.pk?? || table.fks?? || table.uks?? || table.indexes??>,</#if>
     <#-- ${column?toSQL} -->
     </#list>
     <#if table.indexes?? && tanle.indexes?size gt 0>
@@ -25,7 +32,7 @@ CREATE TABLE `${table.name}` (
     </#list>
     </#if>
 )
-<#if table.comment??>COMMENT='${table.comment}'</#if>
+<#if table.comment??>COMMENT=${literal(table.comment, true)}</#if>
 COLLATE='utf8_general_ci'<#-- utf8_general_ci, utf8_unicode_ci, utf8mb4_general_ci, utf8mb4_unicode_ci -->
 ENGINE=InnoDB
 ;
@@ -49,11 +56,11 @@ tablespace APPS
   );
 -- Add comments to the table  
 <#if table.comment??>comment on table <#if table.schema??>${table.schema}.</#if>${table.name} 
-  is '${table.comment}';</#if>
+  is ${literal(table.comment, false)};</#if>
 -- Add comments to the columns
 <#list table.columns as column>
 <#if column.comment??>comment on column ${table.name}.${column.name}
-  is ''${column.comment};
+  is ${literal(column.comment, false)};
 </#list>
 -- Create/Recreate indexes
 <#if table.indexes?? && table.indexes?size gt 0>
@@ -129,13 +136,13 @@ TABLESPACE pg_default;
 
 <#list table.columns as column>
 <#if column.comment??>
-COMMENT ON COLUMN public.${table.name}.${column.name} IS '${column.comment}';
+COMMENT ON COLUMN public.${table.name}.${column.name} IS ${literal(column.comment, false)};
 
 </#if>
 </#list>
 <#if table.comment??>
 COMMENT ON TABLE public.${table.name}
-  IS '${table.comment}';
+  IS ${literal(table.comment, false)};
 </#if>
 <#if table.indexes?? && table.indexes?size gt 0>
 <#list table.indexes as index>
@@ -1,4 +1,6 @@
 <#import "pub.ftl" as tool>
+<#-- primary key column "id" is bound to Taichi.oid, which is assigned by IdGenerator before insert -->
+<#macro property column><#if column.name?upper_case == "ID">oid<#else><@tool.snake2camel snakeCase=column.name /></#if></#macro>
 <?xml version="1.0" encoding="UTF-8"?>
 <#-- condition definition -->
 <#if config?contains("iBatis")>
@@ -21,6 +23,10 @@
 <#assign SET_END_TAG = "</dynamic>">
 <#assign WHERE_START_TAG = "<dynamic prepend='WHERE'>">
 <#assign WHERE_END_TAG = "</dynamic>">
+<#assign ITERATE_START_TAG = "<iterate conjunction=','>">
+<#assign ITERATE_END_TAG = "</iterate>">
+<#assign ITEM_START_TAG = "#[].">
+<#assign ITEM_END_TAG = "#">
 <#t>
 <!DOCTYPE sqlMap PUBLIC "-//ibatis.apache.org//DTD SQL Map 2.0//EN" "http://ibatis.apache.org/dtd/sql-map-2.dtd">
 <#else>
@@ -43,6 +49,10 @@
 <#assign SET_END_TAG = "</trim>">
 <#assign WHERE_START_TAG = "<trim prefix='WHERE' prefixOverrides='AND'>"><#-- or use where tag -->
 <#assign WHERE_END_TAG = "</trim>">
+<#assign ITERATE_START_TAG = "<foreach collection='list' item='item' separator=','>">
+<#assign ITERATE_END_TAG = "</foreach>">
+<#assign ITEM_START_TAG = r"#{item.">
+<#assign ITEM_END_TAG = "}">
 <#-- foreach, trim, bind, choose when otherwise -->
 <#t>
 <!DOCTYPE mapper PUBLIC "-//mybatis.org//DTD Mapper 3.0//EN" "http://mybatis.org/dtd/mybatis-3-mapper.dtd">
@@ -105,22 +115,55 @@
 	VALUES 
 	(
 	<#list table.columns as column>
-	${START_TAG}<@tool.snake2camel snakeCase=column.name />${END_TAG}<#sep>,
+	${START_TAG}<@property column=column />${END_TAG}<#sep>,
 	</#list>
 	<#nt>
 	)
 	</insert>
+	<insert id="insertBatch" ${PARAMETER_TYPE}="java.util.List">
+	<#if table.dialect == "ORACLE">
+	INSERT ALL
+	${ITERATE_START_TAG?replace(",", " ")}
+	INTO ${table.name} 
+	(
+	<include refid="columns" />
+	) 
+	VALUES 
+	(
+	<#list table.columns as column>
+	${ITEM_START_TAG}<@property column=column />${ITEM_END_TAG}<#sep>,
+	</#list>
+	<#nt>
+	)
+	${ITERATE_END_TAG}
+	SELECT 1 FROM DUAL
+	<#else>
+	INSERT INTO ${table.name} 
+	(
+	<include refid="columns" />
+	) 
+	VALUES 
+	${ITERATE_START_TAG}
+	(
+	<#list table.columns as column>
+	${ITEM_START_TAG}<@property column=column />${ITEM_END_TAG}<#sep>,
+	</#list>
+	<#nt>
+	)
+	${ITERATE_END_TAG}
+	</#if>
+	</insert>
 	<insert id="insertSelective" ${PARAMETER_TYPE}="${bean.name}DO">
 	INSERT INTO ${table.name} 
 	(
 		<#list table.columns as column>
 	<#if column.defaultValue?? && column.defaultValue?length gt 0>
-	${IS_NOT_EQUAL_START}<@tool.snake2camel snakeCase="${column.name}" />${IS_NOT_EQUAL_STOP}${column.defaultValue}${IS_NOT_EQUAL_END}
-		${START_TAG}<@tool.snake2camel snakeCase="${column.name}" />${END_TAG}<#sep>,</#sep>
+	${IS_NOT_EQUAL_START}<@property column=column />${IS_NOT_EQUAL_STOP}${column.defaultValue}${IS_NOT_EQUAL_END}
+		${START_TAG}<@property column=column />${END_TAG}<#sep>,</#sep>
 	${IS_NOT_EQUAL_END_TAG}	
 	<#else>
-	${IS_NOT_NULL_START}<@tool.snake2camel snakeCase="${column.name}" />${IS_NOT_NULL_END}
-	    ${START_TAG}<@tool.snake2camel snakeCase="${column.name}" />${END_TAG}<#sep>,</#sep>
+	${IS_NOT_NULL_START}<@property column=column />${IS_NOT_NULL_END}
+	    ${START_TAG}<@property column=column />${END_TAG}<#sep>,</#sep>
 	${IS_NOT_NULL_END_TAG}
 	</#if>
 		</#list>	
@@ -129,12 +172,12 @@
 	(
 		<#list table.columns as column>
 			<#if column.defaultValue?? && column.defaultValue?length gt 0>
-	${IS_NOT_EQUAL_START}<@tool.snake2camel snakeCase="${column.name}" />${IS_NOT_EQUAL_STOP}${column.defaultValue}${IS_NOT_EQUAL_END}
-		${START_TAG}<@tool.snake2camel snakeCase="${column.name}" />${END_TAG}<#sep>,</#sep>
+	${IS_NOT_EQUAL_START}<@property column=column />${IS_NOT_EQUAL_STOP}${column.defaultValue}${IS_NOT_EQUAL_END}
+		${START_TAG}<@property column=column />${END_TAG}<#sep>,</#sep>
 	${IS_NOT_EQUAL_END_TAG}	
 			<#else>
-	${IS_NOT_NULL_START}<@tool.snake2camel snakeCase="${column.name}" />${IS_NOT_NULL_END}
-	   ${START_TAG}<@tool.snake2camel snakeCase="${column.name}" />${END_TAG}<#sep>,</#sep>
+	${IS_NOT_NULL_START}<@property column=column />${IS_NOT_NULL_END}
+	   ${START_TAG}<@property column=column />${END_TAG}<#sep>,</#sep>
 	${IS_NOT_NULL_END_TAG}
 			</#if>
 		</#list>	
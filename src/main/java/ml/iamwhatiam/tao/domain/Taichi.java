@@ -26,7 +26,6 @@ package ml.iamwhatiam.tao.domain;
 import java.io.Serializable;
 import java.util.Date;
 
-import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import javax.validation.constraints.NotNull;
@@ -42,10 +41,9 @@ public abstract class Taichi implements Serializable {
 	private static final long serialVersionUID = 5124015363954822808L;
 	
 	/**
-	 * object identifier
+	 * object identifier, assigned by {@link ml.iamwhatiam.tao.util.IdGenerator} before insert
 	 */
 	@Id
-	@GeneratedValue
 	protected long oid;
 	
 	/**
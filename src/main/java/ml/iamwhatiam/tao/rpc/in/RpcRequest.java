@@ -28,6 +28,8 @@ import java.io.Serializable;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import ml.iamwhatiam.tao.util.JsonUtils;
+
 /**
  * RPC request base information.
  * 
@@ -70,7 +72,11 @@ public abstract class RpcRequest implements Serializable {
 
 	@Override
 	public String toString() {
-		return "transactionId: \"" + transactionId + "\", serial=" + serial + ", ";
+		try {
+			return JsonUtils.stringify(this);
+		} catch (RuntimeException e) {// cycle, too deep or getter failure, never fail logging
+			return getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(this));
+		}
 	}
 
 }
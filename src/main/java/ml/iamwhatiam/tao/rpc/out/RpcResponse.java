@@ -25,6 +25,8 @@ package ml.iamwhatiam.tao.rpc.out;
 
 import java.io.Serializable;
 
+import ml.iamwhatiam.tao.util.JsonUtils;
+
 /**
  * RPC response abstract information.
  * 
@@ -65,7 +67,11 @@ public abstract class RpcResponse implements Serializable {
 	
 	@Override
 	public String toString() {
-		return "\"originId\":\"" + originId + "\", \"receiptId\":\"" + receiptId +"\"";
+		try {
+			return JsonUtils.stringify(this);
+		} catch (RuntimeException e) {// cycle, too deep or getter failure, never fail logging
+			return getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(this));
+		}
 	}
 
 }
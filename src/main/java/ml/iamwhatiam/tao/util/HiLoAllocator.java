@@ -0,0 +1,186 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hi/Lo id generator: reserves a block of ids from {@link RangeStore} with one round-trip,
+ * then hands them out from memory with a single atomic increment.
+ * <p>
+ * When remaining ids of current block drop to low water mark, next block is reserved in background,
+ * so callers only wait on store if ids are consumed faster than one round-trip.
+ * Ids are unique and increasing within one block, but blocks reserved by different processes interleave.
+ * Ids of current block are lost on restart.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class HiLoAllocator implements IdGenerator {
+	
+	private static Logger log = LoggerFactory.getLogger(HiLoAllocator.class);
+	
+	private static final Block EMPTY = new Block(0, 0);
+	
+	private final RangeStore store;
+	
+	private final String name;
+	
+	private final int blockSize;
+	
+	/**
+	 * prefetch next block when this many ids remain in current block
+	 */
+	private final int lowWater;
+	
+	private final Executor executor;
+	
+	private volatile Block current = EMPTY;
+	
+	/**
+	 * at most one outstanding reservation
+	 */
+	private final AtomicReference<FutureTask<Block>> next = new AtomicReference<FutureTask<Block>>();
+	
+	public HiLoAllocator(RangeStore store, String name, int blockSize) {
+		this(store, name, blockSize, blockSize / 2, Prefetcher.executor);
+	}
+	
+	/**
+	 * @param store where blocks come from
+	 * @param name sequence name
+	 * @param blockSize ids reserved per round-trip
+	 * @param lowWater remaining ids which trigger prefetch, 0 disable prefetch
+	 * @param executor run prefetch
+	 */
+	public HiLoAllocator(RangeStore store, String name, int blockSize, int lowWater, Executor executor) {
+		if(store == null || name == null || executor == null) throw new IllegalArgumentException("store, name and executor required");
+		if(blockSize <= 0) throw new IllegalArgumentException("block size must be positive");
+		if(lowWater < 0 || lowWater >= blockSize) throw new IllegalArgumentException("low water must be in [0, " + blockSize + ")");
+		this.store = store;
+		this.name = name;
+		this.blockSize = blockSize;
+		this.lowWater = lowWater;
+		this.executor = executor;
+		if(lowWater > 0) prefetch();
+	}
+
+	public long nextId() {
+		for(;;) {
+			Block block = current;
+			long id = block.cursor.getAndIncrement();
+			if(id < block.limit) {
+				if(block.limit - id == lowWater) prefetch();
+				return id;
+			}
+			synchronized(this) {
+				if(current == block) current = take();
+			}
+		}
+	}
+	
+	private void prefetch() {
+		FutureTask<Block> task = new FutureTask<Block>(new Callable<Block>() {
+			public Block call() {
+				return reserve();
+			}
+		});
+		if(next.compareAndSet(null, task)) executor.execute(task);
+	}
+	
+	/**
+	 * use prefetched block if any, otherwise reserve synchronously
+	 */
+	private Block take() {
+		FutureTask<Block> task = next.getAndSet(null);
+		if(task != null) {
+			try {
+				return task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for id block of " + name, e);
+			} catch (ExecutionException e) {
+				log.warn("prefetch id block of [{}] failed, retry: {}", name, e.getCause().getMessage());
+			}
+		}
+		return reserve();
+	}
+	
+	private Block reserve() {
+		long start = store.reserve(name, blockSize);
+		if(log.isDebugEnabled()) log.debug("reserved ids [{}, {}) of [{}]", new Object[] {start, start + blockSize, name});
+		return new Block(start, start + blockSize);
+	}
+	
+	public String getName() {
+		return name;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public int getLowWater() {
+		return lowWater;
+	}
+	
+	private static class Block {
+		
+		final AtomicLong cursor;
+		
+		final long limit;
+		
+		Block(long start, long limit) {
+			this.cursor = new AtomicLong(start);
+			this.limit = limit;
+		}
+	}
+	
+	/**
+	 * shared daemon thread for prefetch, reservation is a short blocking round-trip
+	 */
+	private static class Prefetcher {
+		private static ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "id-prefetch");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+}
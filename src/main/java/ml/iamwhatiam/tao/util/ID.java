@@ -1,86 +1,516 @@
-/**
- * MIT License
- * 
- * Copyright (c) 2016 iMinusMinus
- * 
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- * 
- * The above copyright notice and this permission notice shall be included in all
- * copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
- * SOFTWARE.
- */
-package ml.iamwhatiam.tao.util;
-
-import java.util.Date;
-import java.util.concurrent.atomic.AtomicInteger;
-
-/**
- * principle: short and unique
- * reference:
- * <ul>
- * <li>UUID</li>
- * f81d4fae-7dec-11d0-a765-00a0c91e6bf6: 4 byte time low, "-", 2 byte time mid, "-", 2 byte time high and version, "-", 
- * 1 byte clock seq and reserved, 1 byte clock seq low, 6 byte node
- * <li>MongoDB ObjectID</li>
- * 507f1f77bcf86cd799439011: 4 byte seconds since the Unix epoch, 3 byte machine id, 2 byte process id, 3 byte counter
- * <li>twitter snowflake</li>
- * long: 41 bit million seconds, 5 bit data center id, 5 bit machine id, 12 bit sequence, 1 bit 0
- * </ul>
- * @author iMinusMinus
- * @version 0.0.1
- *
- */
-public class ID {
-	
-	private static ID instance;
-	
-	private long epoch;
-	
-	private volatile long latest;
-	
-	private AtomicInteger counter;
-	
-	public ID(long epoch) {
-		this.epoch = epoch;
-		latest = this.epoch;
-		counter = new AtomicInteger(0);
-	}
-	
-	public static ID getInstance() {
-		if(instance == null) {
-			instance = Holder.instance;
-		}
-		return instance;
-	}
-	
-	public String next() {
-		if(System.currentTimeMillis() != latest) {
-			counter = new AtomicInteger(0);
-			latest = System.currentTimeMillis();
-		} else {
-			counter.incrementAndGet();
-		}
-		return null;//TODO
-	}
-	
-	public Date getDateTime(ID id) {
-		return null;//TODO
-	}
-	
-	private static class Holder {
-		private static ID instance = new ID(System.currentTimeMillis());
-	}
-
-}
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * principle: short and unique
+ * reference:
+ * <ul>
+ * <li>UUID</li>
+ * f81d4fae-7dec-11d0-a765-00a0c91e6bf6: 4 byte time low, "-", 2 byte time mid, "-", 2 byte time high and version, "-", 
+ * 1 byte clock seq and reserved, 1 byte clock seq low, 6 byte node
+ * <li>MongoDB ObjectID</li>
+ * 507f1f77bcf86cd799439011: 4 byte seconds since the Unix epoch, 3 byte machine id, 2 byte process id, 3 byte counter
+ * <li>twitter snowflake</li>
+ * long: 41 bit million seconds, 5 bit data center id, 5 bit machine id, 12 bit sequence, 1 bit 0
+ * </ul>
+ * This generator use snowflake layout: 1 bit 0, 41 bit milliseconds since {@link #epoch}, 10 bit node(data center and machine),
+ * 12 bit sequence. The last issued id is kept in one atomic word, so timestamp, node and sequence are changed by a single CAS.
+ * When sequence exhausted or clock moved backwards, generator keeps the last timestamp and waits for the next tick.
+ * At most 4096 ids per millisecond per node.
+ * <p>
+ * Node can be specified by system property <code>ml.iamwhatiam.tao.id.node</code>, otherwise derived from MAC address and process id.
+ * <p>
+ * If block size greater than 1, every thread leases a contiguous range of sequence within current millisecond from the shared word,
+ * and hands out ids of that range without atomic operation. Ids are still unique, and time ordered in millisecond granularity,
+ * but not strictly increasing across threads. Default instance block size can be specified by system property
+ * <code>ml.iamwhatiam.tao.id.block</code>.
+ * <p>
+ * String form is fixed width {@link Encoding}, whose alphabet is in ASCII order, so string ids sort in time order as well.
+ * 
+ * @see ObjectID
+ * @author iMinusMinus
+ * @version 0.0.1
+ *
+ */
+public class ID implements IdGenerator {
+	
+	private static Logger log = LoggerFactory.getLogger(ID.class);
+	
+	/**
+	 * 2016-01-01T00:00:00Z
+	 */
+	public static final long DEFAULT_EPOCH = 1451606400000L;
+	
+	public static final String NODE_PROPERTY = "ml.iamwhatiam.tao.id.node";
+	
+	public static final String BLOCK_PROPERTY = "ml.iamwhatiam.tao.id.block";
+	
+	static final int SEQUENCE_BITS = 12;
+	
+	static final int NODE_BITS = 10;
+	
+	static final int TIMESTAMP_BITS = 41;
+	
+	static final int NODE_SHIFT = SEQUENCE_BITS;
+	
+	static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + NODE_BITS;
+	
+	static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+	
+	static final long MAX_NODE = (1L << NODE_BITS) - 1;
+	
+	static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+	
+	private final long epoch;
+	
+	/**
+	 * node id, already shifted
+	 */
+	private final long node;
+	
+	/**
+	 * last issued id: timestamp, node and sequence
+	 */
+	private final AtomicLong latest;
+	
+	/**
+	 * sequences leased by one thread at a time, 1 means every id come from shared word
+	 */
+	private final int blockSize;
+	
+	/**
+	 * thread leased range: next id, limit(exclusive)
+	 */
+	private final ThreadLocal<long[]> blocks;
+	
+	/**
+	 * encode buffer, wide enough for every encoding
+	 */
+	private static final ThreadLocal<char[]> buffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[16];
+		}
+	};
+	
+	public ID(long epoch) {
+		this(epoch, defaultNode());
+	}
+	
+	public ID(long epoch, int node) {
+		this(epoch, node, 1);
+	}
+	
+	public ID(long epoch, int node, int blockSize) {
+		if(node < 0 || node > MAX_NODE) throw new IllegalArgumentException("node must between 0 and " + MAX_NODE);
+		if(epoch < 0 || epoch > System.currentTimeMillis()) throw new IllegalArgumentException("epoch should not be future");
+		if(blockSize < 1 || blockSize > MAX_SEQUENCE + 1) throw new IllegalArgumentException("block size must between 1 and " + (MAX_SEQUENCE + 1));
+		this.epoch = epoch;
+		this.node = ((long) node) << NODE_SHIFT;
+		this.blockSize = blockSize;
+		latest = new AtomicLong(0);
+		if(blockSize > 1) {
+			blocks = new ThreadLocal<long[]>() {
+				@Override
+				protected long[] initialValue() {
+					return new long[2];
+				}
+			};
+		}
+		else blocks = null;
+	}
+	
+	public static ID getInstance() {
+		return Holder.instance;
+	}
+	
+	/**
+	 * @return first {@link IdGenerator} registered by service loader, or default instance
+	 */
+	public static IdGenerator getGenerator() {
+		return GeneratorHolder.generator;
+	}
+	
+	/**
+	 * generate next id
+	 * 
+	 * @return positive and time ordered id
+	 */
+	public long nextId() {
+		if(blocks == null)
+			return nextShared();
+		long[] block = blocks.get();
+		long next = block[0];
+		if(next < block[1] && (next >>> TIMESTAMP_SHIFT) >= currentTimeMillis() - epoch) {
+			block[0] = next + 1;
+			return next;
+		}
+		return lease(block);
+	}
+	
+	private long nextShared() {
+		for(;;) {
+			long last = latest.get();
+			long lastTimestamp = last >>> TIMESTAMP_SHIFT;
+			long now = currentTimeMillis() - epoch;
+			long timestamp, sequence;
+			if(now > lastTimestamp) {
+				if(now > MAX_TIMESTAMP) throw new IllegalStateException("timestamp overflow, epoch too old");
+				timestamp = now;
+				sequence = 0;
+			} else {//same tick, or clock moved backwards
+				sequence = (last & MAX_SEQUENCE) + 1;
+				if(sequence > MAX_SEQUENCE) {
+					waitNextTick(lastTimestamp);
+					continue;
+				}
+				timestamp = lastTimestamp;
+			}
+			long next = timestamp << TIMESTAMP_SHIFT | node | sequence;
+			if(latest.compareAndSet(last, next))
+				return next;
+		}
+	}
+	
+	/**
+	 * reserve sequences of current tick from shared word
+	 * 
+	 * @param block thread leased range to renew
+	 * @return first id of new range
+	 */
+	private long lease(long[] block) {
+		for(;;) {
+			long last = latest.get();
+			long lastTimestamp = last >>> TIMESTAMP_SHIFT;
+			long now = currentTimeMillis() - epoch;
+			long timestamp, first;
+			if(now > lastTimestamp) {
+				if(now > MAX_TIMESTAMP) throw new IllegalStateException("timestamp overflow, epoch too old");
+				timestamp = now;
+				first = 0;
+			} else {
+				first = (last & MAX_SEQUENCE) + 1;
+				if(first > MAX_SEQUENCE) {
+					waitNextTick(lastTimestamp);
+					continue;
+				}
+				timestamp = lastTimestamp;
+			}
+			long end = Math.min(first + blockSize, MAX_SEQUENCE + 1);
+			long base = timestamp << TIMESTAMP_SHIFT | node;
+			if(latest.compareAndSet(last, base | (end - 1))) {
+				block[0] = base + first + 1;
+				block[1] = base + end;
+				return base | first;
+			}
+		}
+	}
+	
+	/**
+	 * @see #next(Encoding)
+	 * @return id as base62 string
+	 */
+	public String next() {
+		return next(Encoding.BASE62);
+	}
+	
+	/**
+	 * generate next id, only the result string is allocated
+	 * 
+	 * @param encoding string form
+	 * @return id as fixed width string
+	 */
+	public String next(Encoding encoding) {
+		char[] chars = buffer.get();
+		int length = encoding.encode(nextId(), chars, 0);
+		return new String(chars, 0, length);
+	}
+	
+	/**
+	 * decode timestamp embedded in id
+	 * 
+	 * @param id generated by this generator
+	 * @return generated time
+	 */
+	public Date getDateTime(long id) {
+		return new Date(epoch + (id >>> TIMESTAMP_SHIFT));
+	}
+	
+	/**
+	 * @see #getDateTime(long)
+	 * @param id base62 string form id
+	 * @return generated time
+	 */
+	public Date getDateTime(String id) {
+		return getDateTime(Encoding.BASE62.decode(id, 0));
+	}
+	
+	public int getNode() {
+		return (int) (node >>> NODE_SHIFT);
+	}
+	
+	public long getEpoch() {
+		return epoch;
+	}
+	
+	public int getBlockSize() {
+		return blockSize;
+	}
+	
+	long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+	
+	/**
+	 * spin until clock pass last timestamp
+	 * 
+	 * @param lastTimestamp timestamp(relative to epoch) in use
+	 */
+	void waitNextTick(long lastTimestamp) {
+		long now = currentTimeMillis() - epoch;
+		if(lastTimestamp - now > 1)
+			log.warn("clock moved backwards {}ms, wait for next tick", lastTimestamp - now);
+		while(now <= lastTimestamp) {
+			if(lastTimestamp - now > 1) {
+				try {
+					Thread.sleep(lastTimestamp - now);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					Thread.yield();
+				}
+			}
+			else Thread.yield();
+			now = currentTimeMillis() - epoch;
+		}
+	}
+	
+	private static int defaultNode() {
+		String specified = System.getProperty(NODE_PROPERTY);
+		if(specified != null)
+			return Integer.parseInt(specified.trim());
+		int hash = machineFingerprint() * 31 + processId();
+		return (int) ((hash ^ (hash >>> NODE_BITS) ^ (hash >>> (NODE_BITS << 1))) & MAX_NODE);
+	}
+	
+	/**
+	 * hash of hardware addresses, or host name if no hardware address available
+	 * 
+	 * @return machine hash
+	 */
+	static int machineFingerprint() {
+		int hash = 0;
+		try {
+			Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+			while(interfaces != null && interfaces.hasMoreElements()) {
+				byte[] mac = interfaces.nextElement().getHardwareAddress();
+				if(mac == null) continue;
+				for(byte b : mac)
+					hash = hash * 31 + b;
+			}
+			if(hash == 0)
+				hash = InetAddress.getLocalHost().getHostName().hashCode();
+		} catch (Exception e) {
+			log.warn("cannot read machine information, use random fingerprint", e);
+			hash = (int) (Double.doubleToLongBits(Math.random()) >>> 16);
+		}
+		return hash;
+	}
+	
+	/**
+	 * @return process id, or random number if cannot tell
+	 */
+	static int processId() {
+		String name = ManagementFactory.getRuntimeMXBean().getName();//pid@hostname
+		int at = name.indexOf('@');
+		try {
+			return Integer.parseInt(at > 0 ? name.substring(0, at) : name);
+		} catch (NumberFormatException e) {
+			return name.hashCode() ^ (int) (Math.random() * Integer.MAX_VALUE);
+		}
+	}
+	
+	/**
+	 * fixed width text form of 64 bit id. Alphabet is ASCII ordered, so text order is the same as unsigned number order.
+	 */
+	public static enum Encoding {
+		
+		/**
+		 * 0-9A-Za-z, 11 chars
+		 */
+		BASE62("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", 11),
+		
+		/**
+		 * Crockford base32: 0-9A-Z without I, L, O, U, 13 chars. Decoding is case insensitive, I and L read as 1, O read as 0.
+		 */
+		CROCKFORD32("0123456789ABCDEFGHJKMNPQRSTVWXYZ", 13);
+		
+		/**
+		 * 62^5
+		 */
+		private static final long BASE62_5 = 916132832L;
+		
+		private final char[] digits;
+		
+		private final byte[] values;
+		
+		private final int radix;
+		
+		private final int width;
+		
+		private Encoding(String alphabet, int width) {
+			this.digits = alphabet.toCharArray();
+			this.radix = digits.length;
+			this.width = width;
+			values = new byte[128];
+			for(int i = 0; i < values.length; i++)
+				values[i] = -1;
+			for(int i = 0; i < digits.length; i++)
+				values[digits[i]] = (byte) i;
+			if(radix == 32) {
+				for(int i = 10; i < digits.length; i++)
+					values[Character.toLowerCase(digits[i])] = (byte) i;
+				values['I'] = values['i'] = values['L'] = values['l'] = 1;
+				values['O'] = values['o'] = 0;
+			}
+		}
+		
+		public int width() {
+			return width;
+		}
+		
+		/**
+		 * write id into buffer
+		 * 
+		 * @param id 64 bit id, treat as unsigned
+		 * @param buf buffer with at least {@link #width()} chars from offset
+		 * @param offset start position
+		 * @return position after last written char
+		 */
+		public int encode(long id, char[] buf, int offset) {
+			int i = offset + width - 1;
+			if(radix == 32) {
+				for(; i >= offset; i--) {
+					buf[i] = digits[(int) (id & 31)];
+					id >>>= 5;
+				}
+			} else {//split into 5 + 5 + 1 digits, so most divisions are int division
+				long high = (id >>> 1) / (BASE62_5 >>> 1);//unsigned division
+				int low = (int) (id - high * BASE62_5);
+				int top = (int) (high / BASE62_5);
+				int middle = (int) (high - (long) top * BASE62_5);
+				for(int j = 0; j < 5; j++, i--) {
+					buf[i] = digits[low % 62];
+					low /= 62;
+				}
+				for(int j = 0; j < 5; j++, i--) {
+					buf[i] = digits[middle % 62];
+					middle /= 62;
+				}
+				buf[i] = digits[top];
+			}
+			return offset + width;
+		}
+		
+		/**
+		 * append id to builder
+		 * 
+		 * @param id 64 bit id, treat as unsigned
+		 * @param sb builder
+		 */
+		public void encode(long id, StringBuilder sb) {
+			char[] chars = buffer.get();
+			sb.append(chars, 0, encode(id, chars, 0));
+		}
+		
+		public String encode(long id) {
+			char[] chars = buffer.get();
+			return new String(chars, 0, encode(id, chars, 0));
+		}
+		
+		/**
+		 * read id written by encode
+		 * 
+		 * @param cs text
+		 * @param offset start position
+		 * @return id
+		 */
+		public long decode(CharSequence cs, int offset) {
+			if(cs.length() - offset < width) throw new IllegalArgumentException("id too short: " + cs);
+			long id = 0;
+			for(int i = offset, j = offset + width; i < j; i++)
+				id = id * radix + valueOf(cs.charAt(i));
+			return id;
+		}
+		
+		/**
+		 * @see #decode(CharSequence, int)
+		 */
+		public long decode(char[] buf, int offset) {
+			if(buf.length - offset < width) throw new IllegalArgumentException("id too short");
+			long id = 0;
+			for(int i = offset, j = offset + width; i < j; i++)
+				id = id * radix + valueOf(buf[i]);
+			return id;
+		}
+		
+		private int valueOf(char c) {
+			int value = c < 128 ? values[c] : -1;
+			if(value < 0) throw new IllegalArgumentException("illegal character [" + c + "] for " + name());
+			return value;
+		}
+		
+	}
+	
+	private static class Holder {
+		private static ID instance = new ID(DEFAULT_EPOCH, defaultNode(), Integer.getInteger(BLOCK_PROPERTY, 1).intValue());
+	}
+	
+	private static class GeneratorHolder {
+		private static IdGenerator generator = load();
+		
+		private static IdGenerator load() {
+			Iterator<IdGenerator> it = ServiceLoader.load(IdGenerator.class, ID.class.getClassLoader()).iterator();
+			if(it.hasNext()) {
+				IdGenerator spi = it.next();
+				if(log.isDebugEnabled()) log.debug("use id generator [{}]", spi.getClass().getName());
+				return spi;
+			}
+			return getInstance();
+		}
+	}
+
+}
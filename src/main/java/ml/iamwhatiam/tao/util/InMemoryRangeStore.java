@@ -0,0 +1,66 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * range store kept in memory: ids are unique within this JVM only, for tests and standalone deployments.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class InMemoryRangeStore implements RangeStore {
+	
+	private final ConcurrentMap<String, AtomicLong> sequences = new ConcurrentHashMap<String, AtomicLong>();
+	
+	private final long initialValue;
+	
+	public InMemoryRangeStore() {
+		this(1);
+	}
+	
+	/**
+	 * @param initialValue first id of every sequence
+	 */
+	public InMemoryRangeStore(long initialValue) {
+		this.initialValue = initialValue;
+	}
+
+	public long reserve(String name, int size) {
+		if(size <= 0) throw new IllegalArgumentException("size must be positive");
+		AtomicLong sequence = sequences.get(name);
+		if(sequence == null) {
+			AtomicLong created = new AtomicLong(initialValue);
+			sequence = sequences.putIfAbsent(name, created);
+			if(sequence == null) sequence = created;
+		}
+		return sequence.getAndAdd(size);
+	}
+
+}
@@ -0,0 +1,181 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * creates instances of one class, resolved once per class and cached:
+ * <ol>
+ * <li>no arguments constructor, any visibility</li>
+ * <li>non-static member class: constructor taking enclosing instance, which is created by instantiator of enclosing class</li>
+ * <li>otherwise, Objenesis like: constructor for serialization generated by <code>sun.reflect.ReflectionFactory</code>,
+ * which allocates instance without running any constructor of the class, so fields keep default values</li>
+ * </ol>
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public abstract class Instantiator<T> {
+	
+	private static Logger log = LoggerFactory.getLogger(Instantiator.class);
+	
+	private static final WeakCache<Class<?>, Instantiator<?>> instantiators = new WeakCache<Class<?>, Instantiator<?>>();
+	
+	protected final Class<T> type;
+	
+	protected Instantiator(Class<T> type) {
+		this.type = type;
+	}
+	
+	/**
+	 * @return cached instantiator of type
+	 * @throws IllegalArgumentException if type is interface, abstract, array or primitive
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Instantiator<T> of(Class<T> type) {
+		Instantiator<?> instantiator = instantiators.get(type);
+		if(instantiator == null) instantiator = instantiators.putIfAbsent(type, resolve(type));
+		return (Instantiator<T>) instantiator;
+	}
+	
+	/**
+	 * @return new instance
+	 * @throws IllegalStateException if instantiation failed
+	 */
+	public abstract T newInstance();
+	
+	public Class<T> getType() {
+		return type;
+	}
+	
+	private static <T> Instantiator<T> resolve(Class<T> type) {
+		if(type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers()))
+			throw new IllegalArgumentException(type.getName() + " can not be instantiated");
+		try {
+			if(type.isMemberClass() && !Modifier.isStatic(type.getModifiers())) {
+				Class<?> enclosing = type.getEnclosingClass();
+				return new Member<T>(type, type.getDeclaredConstructor(enclosing), of(enclosing));
+			}
+			return new Direct<T>(type, type.getDeclaredConstructor());
+		} catch (NoSuchMethodException e) {
+			if(log.isDebugEnabled()) log.debug("no arguments constructor absent in [{}], use serialization constructor", type.getName());
+			return new Direct<T>(type, Serialization.constructor(type));
+		}
+	}
+	
+	static <T> T create(Constructor<T> constructor, Object... args) {
+		try {
+			return constructor.newInstance(args);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if(cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException("instantiate " + constructor.getDeclaringClass().getName() + " failed", cause);
+		} catch (InstantiationException e) {
+			throw new IllegalStateException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static class Direct<T> extends Instantiator<T> {
+		
+		private final Constructor<T> constructor;
+		
+		Direct(Class<T> type, Constructor<T> constructor) {
+			super(type);
+			constructor.setAccessible(true);
+			this.constructor = constructor;
+		}
+
+		@Override
+		public T newInstance() {
+			return create(constructor);
+		}
+	}
+	
+	private static class Member<T> extends Instantiator<T> {
+		
+		private final Constructor<T> constructor;
+		
+		private final Instantiator<?> enclosing;
+		
+		Member(Class<T> type, Constructor<T> constructor, Instantiator<?> enclosing) {
+			super(type);
+			constructor.setAccessible(true);
+			this.constructor = constructor;
+			this.enclosing = enclosing;
+		}
+
+		@Override
+		public T newInstance() {
+			return create(constructor, enclosing.newInstance());
+		}
+	}
+	
+	/**
+	 * <code>sun.reflect.ReflectionFactory</code> is reached by reflection, it may be absent on some JVM
+	 */
+	private static class Serialization {
+		
+		private static final Object factory;
+		
+		private static final Method newConstructorForSerialization;
+		
+		static {
+			Object f = null;
+			Method m = null;
+			try {
+				Class<?> clazz = Class.forName("sun.reflect.ReflectionFactory");
+				f = clazz.getMethod("getReflectionFactory").invoke(null);
+				m = clazz.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+			} catch (Exception e) {
+				log.warn("serialization constructor unavailable: {}", e.toString());
+			}
+			factory = f;
+			newConstructorForSerialization = m;
+		}
+		
+		@SuppressWarnings("unchecked")
+		static <T> Constructor<T> constructor(Class<T> type) {
+			if(newConstructorForSerialization == null)
+				throw new IllegalArgumentException(type.getName() + " has no arguments constructor");
+			try {
+				return (Constructor<T>) newConstructorForSerialization.invoke(factory, type, Object.class.getDeclaredConstructor());
+			} catch (Exception e) {
+				throw new IllegalArgumentException(type.getName() + " can not be instantiated", e);
+			}
+		}
+	}
+
+}
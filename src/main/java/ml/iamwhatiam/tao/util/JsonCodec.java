@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.io.IOException;
+
+/**
+ * hand-unrolled JSON codec of one bean type, such as the ones CodeGen generates beside VO and Domain.
+ * <p>
+ * {@link JsonWriter} and {@link JsonReader} use codec named as bean class name with suffix "JsonCodec"
+ * in the same package instead of reflection when present, 
+ * so codec must have no arguments constructor and be thread safe.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public interface JsonCodec<T> {
+	
+	/**
+	 * write value as JSON object, names may be precomputed by {@link JsonWriter#quote(String)}
+	 * @param value not null
+	 */
+	void write(JsonWriter writer, T value) throws IOException;
+	
+	/**
+	 * read JSON object, names may be matched by {@link JsonReader#nextName(char[][])}
+	 * @return value, next token is not null
+	 */
+	T read(JsonReader reader) throws IOException;
+
+}
@@ -0,0 +1,764 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import ml.iamwhatiam.tao.util.PropertyAccessor.Property;
+
+/**
+ * incremental pull JSON parser, reads from a char buffer refilled from {@link Reader} on demand,
+ * so large payload is never held as one String. 
+ * <p>
+ * Besides token level api, {@link #read(Type)} binds next value directly to target type without intermediate tree:
+ * bean is read by generated {@link JsonCodec} if present, otherwise created by {@link Instantiator} 
+ * and filled by {@link PropertyAccessor} setters as members are read, unknown members are skipped. Collection, Map and array element types come from generic signature.
+ * Date is read from milliseconds, enum from name. Untyped value(Object) becomes LinkedHashMap, ArrayList, String,
+ * Long, Double or Boolean.
+ * <p>
+ * Malformed input is reported as IOException with position. Not thread safe.
+ * 
+ * @see JsonWriter
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class JsonReader implements Closeable {
+	
+	public static enum Token {
+		BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+	
+	private static final int EMPTY_ARRAY = 1;
+	
+	private static final int NONEMPTY_ARRAY = 2;
+	
+	private static final int EMPTY_OBJECT = 3;
+	
+	private static final int DANGLING_NAME = 4;
+	
+	private static final int NONEMPTY_OBJECT = 5;
+	
+	private static final int EMPTY_DOCUMENT = 6;
+	
+	private static final int NONEMPTY_DOCUMENT = 7;
+	
+	private final Reader in;
+	
+	private char[] buf;
+	
+	private int pos;
+	
+	private int limit;
+	
+	/**
+	 * chars discarded from buffer, for error position
+	 */
+	private long consumed;
+	
+	/**
+	 * scope of document and each nesting level, nesting is limited as {@link JsonWriter#MAX_DEPTH}
+	 */
+	private int[] stack = new int[JsonWriter.MAX_DEPTH + 1];
+	
+	private int size;
+	
+	private Token peeked;
+	
+	/**
+	 * number text and escaped string
+	 */
+	private final StringBuilder scratch = new StringBuilder();
+	
+	public JsonReader(Reader in) {
+		if(in == null) throw new IllegalArgumentException("input required");
+		this.in = in;
+		this.buf = new char[1024];
+		stack[size++] = EMPTY_DOCUMENT;
+	}
+	
+	/**
+	 * @param in UTF-8 encoded JSON
+	 */
+	public JsonReader(InputStream in) {
+		this(utf8(in));
+	}
+	
+	/**
+	 * @param json UTF-8 encoded JSON
+	 */
+	public JsonReader(byte[] json) {
+		this(new ByteArrayInputStream(json));
+	}
+	
+	public JsonReader(String json) {
+		this.in = null;
+		this.buf = json.toCharArray();
+		this.limit = buf.length;
+		stack[size++] = EMPTY_DOCUMENT;
+	}
+	
+	private static Reader utf8(InputStream in) {
+		try {
+			return new InputStreamReader(in, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	public Token peek() throws IOException {
+		if(peeked != null) return peeked;
+		int c;
+		switch(stack[size - 1]) {
+		case EMPTY_ARRAY:
+			stack[size - 1] = NONEMPTY_ARRAY;
+			c = nextNonWhitespace();
+			if(c == ']') return peeked = Token.END_ARRAY;
+			pos--;
+			break;
+		case NONEMPTY_ARRAY:
+			c = nextNonWhitespace();
+			if(c == ']') return peeked = Token.END_ARRAY;
+			if(c != ',') throw syntax("',' or ']' expected");
+			break;
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			int scope = stack[size - 1];
+			stack[size - 1] = DANGLING_NAME;
+			c = nextNonWhitespace();
+			if(c == '}') return peeked = Token.END_OBJECT;
+			if(scope == NONEMPTY_OBJECT) {
+				if(c != ',') throw syntax("',' or '}' expected");
+				c = nextNonWhitespace();
+			}
+			if(c != '"') throw syntax("name expected");
+			return peeked = Token.NAME;
+		case DANGLING_NAME:
+			stack[size - 1] = NONEMPTY_OBJECT;
+			if(nextNonWhitespace() != ':') throw syntax("':' expected");
+			break;
+		case EMPTY_DOCUMENT:
+			stack[size - 1] = NONEMPTY_DOCUMENT;
+			break;
+		case NONEMPTY_DOCUMENT:
+			if(skipWhitespace() < 0) return peeked = Token.END_DOCUMENT;
+			throw syntax("end of document expected");
+		default:
+			throw new IllegalStateException("reader closed");
+		}
+		c = nextNonWhitespace();
+		switch(c) {
+		case '{': return peeked = Token.BEGIN_OBJECT;
+		case '[': return peeked = Token.BEGIN_ARRAY;
+		case '"': return peeked = Token.STRING;
+		case 't':
+		case 'f': pos--; return peeked = Token.BOOLEAN;
+		case 'n': pos--; return peeked = Token.NULL;
+		default:
+			if(c == '-' || c >= '0' && c <= '9') {
+				pos--;
+				return peeked = Token.NUMBER;
+			}
+			throw syntax("value expected");
+		}
+	}
+	
+	public void beginObject() throws IOException {
+		expect(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+	
+	public void endObject() throws IOException {
+		expect(Token.END_OBJECT);
+		size--;
+	}
+	
+	public void beginArray() throws IOException {
+		expect(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+	
+	public void endArray() throws IOException {
+		expect(Token.END_ARRAY);
+		size--;
+	}
+	
+	/**
+	 * @return whether current object or array has more elements
+	 */
+	public boolean hasNext() throws IOException {
+		Token token = peek();
+		return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+	}
+	
+	public String nextName() throws IOException {
+		expect(Token.NAME);
+		return readString();
+	}
+	
+	/**
+	 * match next name against candidates without creating String
+	 * @param names unescaped candidate names
+	 * @return index of matched name, or -1
+	 */
+	public int nextName(char[][] names) throws IOException {
+		expect(Token.NAME);
+		int start = pos;
+		for(int i = pos; i < limit; i++) {
+			char c = buf[i];
+			if(c == '"') {
+				pos = i + 1;
+				return indexOf(names, buf, start, i - start);
+			}
+			if(c == '\\' || c < 0x20) break;
+		}
+		char[] name = readString().toCharArray();
+		return indexOf(names, name, 0, name.length);
+	}
+	
+	private static int indexOf(char[][] names, char[] chars, int offset, int length) {
+		outer:
+		for(int i = 0; i < names.length; i++) {
+			char[] name = names[i];
+			if(name.length != length) continue;
+			for(int j = 0; j < length; j++)
+				if(name[j] != chars[offset + j]) continue outer;
+			return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * consume next value if it is null
+	 * @return whether null consumed
+	 */
+	public boolean nextIfNull() throws IOException {
+		if(peek() != Token.NULL) return false;
+		nextNull();
+		return true;
+	}
+	
+	/**
+	 * @return string, or text of number
+	 */
+	public String nextString() throws IOException {
+		Token token = peek();
+		if(token == Token.STRING) {
+			peeked = null;
+			return readString();
+		}
+		if(token == Token.NUMBER) {
+			peeked = null;
+			return readNumber().toString();
+		}
+		throw syntax("string expected but was " + token);
+	}
+	
+	public boolean nextBoolean() throws IOException {
+		expect(Token.BOOLEAN);
+		if(buf[pos] == 't') {
+			literal("true");
+			return true;
+		}
+		literal("false");
+		return false;
+	}
+	
+	public void nextNull() throws IOException {
+		expect(Token.NULL);
+		literal("null");
+	}
+	
+	/**
+	 * @return number, or quoted number
+	 */
+	public long nextLong() throws IOException {
+		Token token = peek();
+		if(token == Token.STRING) {
+			peeked = null;
+			String s = readString();
+			try {
+				return Long.parseLong(s);
+			} catch (NumberFormatException e) {
+				throw syntax("long expected but was \"" + s + "\"");
+			}
+		}
+		expect(Token.NUMBER);
+		CharSequence number = readNumber();
+		int n = number.length(), i = 0;
+		boolean negative = number.charAt(0) == '-';
+		if(negative) i++;
+		long value = 0;
+		boolean overflow = false;
+		for(; i < n; i++) {
+			char c = number.charAt(i);
+			if(c < '0' || c > '9') break;
+			int digit = c - '0';
+			if(value < -922337203685477580L || value == -922337203685477580L && digit > (negative ? 8 : 7)) {
+				overflow = true;
+				break;
+			}
+			value = value * 10 - digit;
+		}
+		if(i == n && n > (negative ? 1 : 0)) return negative ? value : -value;
+		if(overflow && integral(number, i)) throw syntax("long expected but was " + number);
+		double d = parseDouble(number);//fraction or exponent
+		if(d != (long) d || d >= 0x1p63) throw syntax("long expected but was " + number);
+		return (long) d;
+	}
+	
+	/**
+	 * @return whether number has no fraction or exponent after offset
+	 */
+	private static boolean integral(CharSequence number, int offset) {
+		for(int i = offset; i < number.length(); i++) {
+			char c = number.charAt(i);
+			if(c == '.' || c == 'e' || c == 'E') return false;
+		}
+		return true;
+	}
+	
+	public int nextInt() throws IOException {
+		long value = nextLong();
+		if(value != (int) value) throw syntax("int expected but was " + value);
+		return (int) value;
+	}
+	
+	public double nextDouble() throws IOException {
+		Token token = peek();
+		if(token == Token.STRING) {
+			peeked = null;
+			String s = readString();
+			try {
+				return Double.parseDouble(s);
+			} catch (NumberFormatException e) {
+				throw syntax("number expected but was \"" + s + "\"");
+			}
+		}
+		expect(Token.NUMBER);
+		return parseDouble(readNumber());
+	}
+	
+	/**
+	 * skip next value, including nested values
+	 */
+	public void skipValue() throws IOException {
+		int depth = 0;
+		do {
+			switch(peek()) {
+			case BEGIN_OBJECT: beginObject(); depth++; break;
+			case BEGIN_ARRAY: beginArray(); depth++; break;
+			case END_OBJECT: endObject(); depth--; break;
+			case END_ARRAY: endArray(); depth--; break;
+			case NAME: nextName(); break;
+			case STRING:
+			case NUMBER: nextString(); break;
+			case BOOLEAN: nextBoolean(); break;
+			case NULL: nextNull(); break;
+			default: throw syntax("value expected");
+			}
+		} while(depth > 0);
+	}
+	
+	/**
+	 * bind next value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T read(Class<T> type) throws IOException {
+		return (T) read((Type) type);
+	}
+	
+	/**
+	 * bind next value to type, see class description
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Object read(Type type) throws IOException {
+		Class<?> raw = raw(type);
+		Token token = peek();
+		if(token == Token.NULL) {
+			nextNull();
+			return null;
+		}
+		if(raw == Object.class) return untyped();
+		if(raw == String.class || raw == CharSequence.class) return token == Token.BOOLEAN ? String.valueOf(nextBoolean()) : nextString();
+		if(raw.isPrimitive() || Number.class.isAssignableFrom(raw) || raw == Boolean.class || raw == Character.class)
+			return scalar(raw);
+		if(raw.isEnum()) return Enum.valueOf((Class<? extends Enum>) raw, nextString());
+		if(raw == Date.class) return new Date(nextLong());
+		if(raw.isArray()) {
+			Type componentType = type instanceof GenericArrayType ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+			List<Object> elements = new ArrayList<Object>();
+			beginArray();
+			while(hasNext())
+				elements.add(read(componentType));
+			endArray();
+			Object array = Array.newInstance(raw.getComponentType(), elements.size());
+			for(int i = 0; i < elements.size(); i++) {
+				Object element = elements.get(i);
+				if(element != null || !raw.getComponentType().isPrimitive()) Array.set(array, i, element);
+			}
+			return array;
+		}
+		if(Collection.class.isAssignableFrom(raw)) {
+			Type elementType = typeArgument(type, 0);
+			Collection<Object> collection = (Collection<Object>) newContainer(raw);
+			beginArray();
+			while(hasNext())
+				collection.add(read(elementType));
+			endArray();
+			return collection;
+		}
+		if(Map.class.isAssignableFrom(raw)) {
+			Class<?> keyType = raw(typeArgument(type, 0));
+			Type valueType = typeArgument(type, 1);
+			Map<Object, Object> map = (Map<Object, Object>) newContainer(raw);
+			beginObject();
+			while(hasNext()) {
+				String name = nextName();
+				map.put(key(name, keyType), read(valueType));
+			}
+			endObject();
+			return map;
+		}
+		return bean(raw);
+	}
+	
+	/**
+	 * bind next JSON array positionally in one pass, element i to types[i], such as method arguments.
+	 * null of primitive type becomes default value
+	 * @throws IOException if element count differs from type count
+	 */
+	public Object[] read(Type[] types) throws IOException {
+		Object[] values = new Object[types.length];
+		beginArray();
+		for(int i = 0; i < types.length; i++) {
+			if(!hasNext()) throw syntax(types.length + " elements expected but was " + i);
+			Object value = read(types[i]);
+			Class<?> raw = raw(types[i]);
+			values[i] = value == null && raw.isPrimitive() ? Array.get(Array.newInstance(raw, 1), 0) : value;
+		}
+		if(hasNext()) throw syntax(types.length + " elements expected");
+		endArray();
+		return values;
+	}
+	
+	public void close() throws IOException {
+		peeked = null;
+		stack[0] = 0;
+		size = 1;
+		if(in != null) in.close();
+	}
+	
+	private Object bean(Class<?> type) throws IOException {
+		JsonCodec<Object> codec = JsonUtils.codec(type);
+		if(codec != null) return codec.read(this);
+		Object bean = Instantiator.of(type).newInstance();
+		PropertyAccessor<?> accessor = PropertyAccessor.of(type);
+		beginObject();
+		while(hasNext()) {
+			Property property = accessor.getProperty(nextName());
+			if(property == null || !property.isWritable()) skipValue();
+			else property.set(bean, read(property.getGenericType()));
+		}
+		endObject();
+		return bean;
+	}
+	
+	private Object scalar(Class<?> type) throws IOException {
+		if(type == long.class || type == Long.class) return nextLong();
+		if(type == int.class || type == Integer.class) return nextInt();
+		if(type == double.class || type == Double.class) return nextDouble();
+		if(type == boolean.class || type == Boolean.class) {
+			if(peek() == Token.STRING) return Boolean.valueOf(nextString());
+			return nextBoolean();
+		}
+		if(type == float.class || type == Float.class) return (float) nextDouble();
+		if(type == short.class || type == Short.class) {
+			int value = nextInt();
+			if(value != (short) value) throw syntax("short expected but was " + value);
+			return (short) value;
+		}
+		if(type == byte.class || type == Byte.class) {
+			int value = nextInt();
+			if(value != (byte) value) throw syntax("byte expected but was " + value);
+			return (byte) value;
+		}
+		if(type == char.class || type == Character.class) {
+			String s = nextString();
+			if(s.length() != 1) throw syntax("char expected but was \"" + s + "\"");
+			return s.charAt(0);
+		}
+		String text = nextString();
+		try {
+			if(type == BigDecimal.class || type == Number.class) return new BigDecimal(text);
+			if(type == BigInteger.class) return new BigInteger(text);
+		} catch (NumberFormatException e) {
+			throw syntax(type.getSimpleName() + " expected but was \"" + text + "\"");
+		}
+		throw new IllegalArgumentException("unsupported type " + type.getName());
+	}
+	
+	private Object untyped() throws IOException {
+		switch(peek()) {
+		case BEGIN_OBJECT:
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			beginObject();
+			while(hasNext()) {
+				String name = nextName();
+				map.put(name, untyped());
+			}
+			endObject();
+			return map;
+		case BEGIN_ARRAY:
+			List<Object> list = new ArrayList<Object>();
+			beginArray();
+			while(hasNext())
+				list.add(untyped());
+			endArray();
+			return list;
+		case STRING: return nextString();
+		case BOOLEAN: return nextBoolean();
+		case NULL: nextNull(); return null;
+		case NUMBER:
+			peeked = null;
+			CharSequence number = readNumber();
+			String text = number.toString();
+			for(int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if(c == '.' || c == 'e' || c == 'E') return parseDouble(text);
+			}
+			try {
+				return Long.valueOf(text);
+			} catch (NumberFormatException e) {
+				return parseDouble(text);
+			}
+		default:
+			throw syntax("value expected");
+		}
+	}
+	
+	private static Object key(String name, Class<?> type) {
+		if(type == String.class || type == Object.class || type == CharSequence.class) return name;
+		if(type == Long.class) return Long.valueOf(name);
+		if(type == Integer.class) return Integer.valueOf(name);
+		if(type.isEnum()) return enumValue(type, name);
+		throw new IllegalArgumentException("unsupported map key type " + type.getName());
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object enumValue(Class<?> type, String name) {
+		return Enum.valueOf((Class<? extends Enum>) type, name);
+	}
+	
+	private static Object newContainer(Class<?> type) {
+		if(!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) return Instantiator.of(type).newInstance();
+		if(Map.class.isAssignableFrom(type)) return SortedMap.class.isAssignableFrom(type) ? new TreeMap<Object, Object>() : new LinkedHashMap<Object, Object>();
+		if(SortedSet.class.isAssignableFrom(type)) return new TreeSet<Object>();
+		if(Set.class.isAssignableFrom(type)) return new LinkedHashSet<Object>();
+		if(Queue.class.isAssignableFrom(type)) return new LinkedList<Object>();
+		return new ArrayList<Object>();
+	}
+	
+	private static Type typeArgument(Type type, int index) {
+		if(type instanceof ParameterizedType) {
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			if(index < arguments.length) return arguments[index];
+		}
+		return Object.class;
+	}
+	
+	static Class<?> raw(Type type) {
+		if(type instanceof Class) return (Class<?>) type;
+		if(type instanceof ParameterizedType) return raw(((ParameterizedType) type).getRawType());
+		if(type instanceof GenericArrayType) return Array.newInstance(raw(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		if(type instanceof WildcardType) return raw(((WildcardType) type).getUpperBounds()[0]);
+		if(type instanceof TypeVariable) return raw(((TypeVariable<?>) type).getBounds()[0]);
+		return Object.class;
+	}
+	
+	private void push(int scope) throws IOException {
+		if(size == stack.length) throw syntax("nesting deeper than " + JsonWriter.MAX_DEPTH);
+		stack[size++] = scope;
+	}
+	
+	private void expect(Token token) throws IOException {
+		Token actual = peek();
+		if(actual != token) throw syntax(token + " expected but was " + actual);
+		peeked = null;
+	}
+	
+	private void literal(String word) throws IOException {
+		for(int i = 0; i < word.length(); i++) {
+			if(pos == limit && !fill()) throw syntax("unexpected end of input");
+			if(buf[pos] != word.charAt(i)) throw syntax(word + " expected");
+			pos++;
+		}
+	}
+	
+	/**
+	 * number chars are checked by {@link #parseDouble(CharSequence)} or digit loop
+	 */
+	private CharSequence readNumber() throws IOException {
+		scratch.setLength(0);
+		for(;;) {
+			if(pos == limit && !fill()) break;
+			char c = buf[pos];
+			if(c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+				scratch.append(c);
+				pos++;
+			} else break;
+		}
+		return scratch;
+	}
+	
+	private double parseDouble(CharSequence number) throws IOException {
+		try {
+			return Double.parseDouble(number.toString());
+		} catch (NumberFormatException e) {
+			throw syntax("malformed number " + number);
+		}
+	}
+	
+	/**
+	 * read string after opening quote
+	 */
+	private String readString() throws IOException {
+		int start = pos;
+		for(int i = pos; i < limit; i++) {
+			char c = buf[i];
+			if(c == '"') {
+				pos = i + 1;
+				return new String(buf, start, i - start);
+			}
+			if(c == '\\' || c < 0x20) break;
+		}
+		scratch.setLength(0);
+		for(;;) {
+			if(pos == limit && !fill()) throw syntax("unterminated string");
+			char c = buf[pos++];
+			if(c == '"') return scratch.toString();
+			if(c == '\\') scratch.append(unescape());
+			else if(c < 0x20) throw syntax("control character in string");
+			else scratch.append(c);
+		}
+	}
+	
+	private char unescape() throws IOException {
+		if(pos == limit && !fill()) throw syntax("unterminated escape");
+		char c = buf[pos++];
+		switch(c) {
+		case '"':
+		case '\\':
+		case '/': return c;
+		case 'b': return '\b';
+		case 'f': return '\f';
+		case 'n': return '\n';
+		case 'r': return '\r';
+		case 't': return '\t';
+		case 'u':
+			int value = 0;
+			for(int i = 0; i < 4; i++) {
+				if(pos == limit && !fill()) throw syntax("unterminated escape");
+				int digit = Character.digit(buf[pos++], 16);
+				if(digit < 0) throw syntax("malformed unicode escape");
+				value = value << 4 | digit;
+			}
+			return (char) value;
+		default:
+			throw syntax("illegal escape \\" + c);
+		}
+	}
+	
+	/**
+	 * @return next non-whitespace char, consumed
+	 */
+	private int nextNonWhitespace() throws IOException {
+		int c = skipWhitespace();
+		if(c < 0) throw syntax("unexpected end of input");
+		pos++;
+		return c;
+	}
+	
+	/**
+	 * @return next non-whitespace char not consumed, or -1 on end of input
+	 */
+	private int skipWhitespace() throws IOException {
+		for(;;) {
+			if(pos == limit && !fill()) return -1;
+			char c = buf[pos];
+			if(c == ' ' || c == '\n' || c == '\r' || c == '\t') pos++;
+			else return c;
+		}
+	}
+	
+	/**
+	 * refill buffer after all chars consumed
+	 * @return false if end of input
+	 */
+	private boolean fill() throws IOException {
+		if(in == null) return false;
+		consumed += limit;
+		pos = limit = 0;
+		int n;
+		while((n = in.read(buf, 0, buf.length)) == 0);
+		if(n < 0) return false;
+		limit = n;
+		return true;
+	}
+	
+	private IOException syntax(String message) {
+		return new IOException("malformed JSON: " + message + " at position " + (consumed + pos));
+	}
+
+}
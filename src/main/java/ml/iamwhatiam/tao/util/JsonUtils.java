@@ -23,23 +23,154 @@
  */
 package ml.iamwhatiam.tao.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+
 /**
+ * JSON serialization, see {@link JsonWriter} and {@link JsonReader} for supported types.
+ * Bean with generated {@link JsonCodec} is written and read by the codec instead of reflection.
+ * 
  * @author iMinusMinus
  * @version 0.0.1
  *
  */
 public class JsonUtils {
 	
+	/**
+	 * suffix of generated codec class name
+	 */
+	public static final String CODEC_SUFFIX = "JsonCodec";
+	
+	/**
+	 * class -&gt; codec or {@link #NONE}
+	 */
+	private static final WeakCache<Class<?>, Object> codecs = new WeakCache<Class<?>, Object>();
+	
+	private static final Object NONE = new Object();
+	
 	public static String stringify(Object obj) {
-		return obj.toString();//FIXME
+		StringBuilder sb = new StringBuilder();
+		try {
+			write(obj, sb);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);// StringBuilder never throws
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * write JSON to Appendable, such as {@link java.io.Writer} or StringBuilder, output is flushed but not closed
+	 */
+	public static void write(Object obj, Appendable out) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.value(obj);
+		writer.flush();
+	}
+	
+	/**
+	 * write JSON encoded as UTF-8, output is flushed but not closed
+	 */
+	public static void write(Object obj, OutputStream out) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.value(obj);
+		writer.flush();
 	}
 	
-	public static Object parse(String json, Class<?> clazz) {
-		return json;//FIXME
+	/**
+	 * bind JSON to class without intermediate tree, malformed JSON or trailing data is rejected
+	 * @throws IllegalArgumentException if JSON is malformed
+	 */
+	public static <T> T parse(String json, Class<T> clazz) {
+		try {
+			return read(new JsonReader(json), clazz);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
 	}
 	
+	/**
+	 * @param json UTF-8 encoded JSON
+	 * @see #parse(String, Class)
+	 */
+	public static <T> T parse(byte[] json, Class<T> clazz) {
+		try {
+			return read(new JsonReader(json), clazz);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * read JSON incrementally, input is not closed
+	 */
+	public static <T> T parse(Reader in, Class<T> clazz) throws IOException {
+		return read(new JsonReader(in), clazz);
+	}
+	
+	/**
+	 * read UTF-8 encoded JSON incrementally, input is not closed
+	 */
+	public static <T> T parse(InputStream in, Class<T> clazz) throws IOException {
+		return read(new JsonReader(in), clazz);
+	}
+	
+	private static <T> T read(JsonReader reader, Class<T> clazz) throws IOException {
+		T value = reader.read(clazz);
+		reader.peek();// reject trailing data
+		return value;
+	}
+	
+	/**
+	 * decode JSON array positionally in one pass, element i is bound to classes[i]
+	 * @throws IllegalArgumentException if JSON is malformed or element count differs from class count
+	 */
 	public static Object[] parse(String json, Class<?>[] classes) {
-		return null;//FIXME
+		return parse(json, (Type[]) classes);
+	}
+	
+	/**
+	 * decode JSON array positionally by generic types, such as {@link java.lang.reflect.Method#getGenericParameterTypes()}
+	 * @see #parse(String, Class[])
+	 */
+	public static Object[] parse(String json, Type[] types) {
+		try {
+			JsonReader reader = new JsonReader(json);
+			Object[] values = reader.read(types);
+			reader.peek();
+			return values;
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * read UTF-8 encoded JSON array positionally, input is not closed
+	 * @see #parse(String, Type[])
+	 */
+	public static Object[] parse(InputStream in, Type[] types) throws IOException {
+		JsonReader reader = new JsonReader(in);
+		Object[] values = reader.read(types);
+		reader.peek();
+		return values;
+	}
+	
+	/**
+	 * codec named as class name with suffix {@link #CODEC_SUFFIX} by the same class loader
+	 * @return codec, or null if absent
+	 */
+	@SuppressWarnings("unchecked")
+	static JsonCodec<Object> codec(Class<?> type) {
+		Object codec = codecs.get(type);
+		if(codec == null) {
+			Class<?> klazz = ReflectionUtils.findClass(type.getName() + CODEC_SUFFIX, type.getClassLoader());
+			if(klazz != null && JsonCodec.class.isAssignableFrom(klazz)) codec = Instantiator.of(klazz).newInstance();
+			else codec = NONE;
+			codec = codecs.putIfAbsent(type, codec);
+		}
+		return codec == NONE ? null : (JsonCodec<Object>) codec;
 	}
 
 }
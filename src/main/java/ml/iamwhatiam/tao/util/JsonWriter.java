@@ -0,0 +1,535 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import ml.iamwhatiam.tao.util.PropertyAccessor.Property;
+
+/**
+ * streaming JSON writer. Characters are escaped and digits are written into an internal buffer,
+ * which is flushed to {@link Appendable}, {@link Writer}, or {@link OutputStream} encoded as UTF-8,
+ * so no String is created per field or number, except for floating point with fraction.
+ * <p>
+ * {@link #value(Object)} writes:
+ * <ul>
+ * <li>{@link CharSequence}, {@link Character}, {@link Enum} name as string</li>
+ * <li>{@link Number}, {@link Date} and {@link Calendar} as milliseconds, NaN and infinity as null</li>
+ * <li>{@link Map} as object, {@link Iterable} and array as array, char[] as string</li>
+ * <li>other objects by generated {@link JsonCodec} if present, 
+ * otherwise as bean, readable properties by {@link PropertyAccessor}, null property omitted</li>
+ * </ul>
+ * Not thread safe.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class JsonWriter implements Flushable, Closeable {
+	
+	static final int MAX_DEPTH = 64;
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	/**
+	 * escape character after '\', 'u' for \\u00XX form, 0 for no escape
+	 */
+	private static final char[] ESCAPE = new char[128];
+	
+	private static final char[] NULL = "null".toCharArray();
+	
+	private static final char[] TRUE = "true".toCharArray();
+	
+	private static final char[] FALSE = "false".toCharArray();
+	
+	private static final char[] MIN_LONG = "-9223372036854775808".toCharArray();
+	
+	private static final WeakCache<Class<?>, BeanModel> models = new WeakCache<Class<?>, BeanModel>();
+	
+	static {
+		for(int i = 0; i < 0x20; i++)
+			ESCAPE[i] = 'u';
+		ESCAPE['"'] = '"';
+		ESCAPE['\\'] = '\\';
+		ESCAPE['\b'] = 'b';
+		ESCAPE['\f'] = 'f';
+		ESCAPE['\n'] = 'n';
+		ESCAPE['\r'] = 'r';
+		ESCAPE['\t'] = 't';
+	}
+	
+	private final Appendable appendable;
+	
+	private final Writer writer;
+	
+	private final OutputStream stream;
+	
+	private final char[] buf;
+	
+	private int pos;
+	
+	/**
+	 * UTF-8 output buffer
+	 */
+	private byte[] bytes;
+	
+	/**
+	 * high surrogate at end of last flushed chars
+	 */
+	private char pendingHigh;
+	
+	/**
+	 * whether no element written at each nesting level
+	 */
+	private final boolean[] empty = new boolean[MAX_DEPTH + 1];
+	
+	private int depth;
+	
+	private boolean afterName;
+	
+	public JsonWriter(Appendable out) {
+		this(out instanceof Writer ? (Writer) out : null, out, null);
+	}
+	
+	public JsonWriter(Writer out) {
+		this(out, out, null);
+	}
+	
+	/**
+	 * @param out receive UTF-8 bytes
+	 */
+	public JsonWriter(OutputStream out) {
+		this(null, null, out);
+		bytes = new byte[buf.length * 3 + 4];
+	}
+	
+	private JsonWriter(Writer writer, Appendable appendable, OutputStream stream) {
+		if(writer == null && appendable == null && stream == null) throw new IllegalArgumentException("output required");
+		this.writer = writer;
+		this.appendable = appendable;
+		this.stream = stream;
+		this.buf = new char[1024];
+	}
+	
+	public JsonWriter beginObject() throws IOException {
+		return open('{');
+	}
+	
+	public JsonWriter endObject() throws IOException {
+		return close('}');
+	}
+	
+	public JsonWriter beginArray() throws IOException {
+		return open('[');
+	}
+	
+	public JsonWriter endArray() throws IOException {
+		return close(']');
+	}
+	
+	/**
+	 * write member name of current object
+	 */
+	public JsonWriter name(CharSequence name) throws IOException {
+		separate();
+		string(name);
+		write(':');
+		afterName = true;
+		return this;
+	}
+	
+	/**
+	 * write member name pre-escaped by {@link #quote(String)}
+	 */
+	public JsonWriter name(char[] quoted) throws IOException {
+		separate();
+		write(quoted);
+		afterName = true;
+		return this;
+	}
+	
+	/**
+	 * @return escaped name with quotes and colon, for {@link #name(char[])}
+	 */
+	public static char[] quote(String name) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			JsonWriter w = new JsonWriter(sb);
+			w.string(name);
+			w.flush();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sb.append(':').toString().toCharArray();
+	}
+	
+	public JsonWriter nullValue() throws IOException {
+		separate();
+		write(NULL);
+		return this;
+	}
+	
+	public JsonWriter value(boolean value) throws IOException {
+		separate();
+		write(value ? TRUE : FALSE);
+		return this;
+	}
+	
+	public JsonWriter value(long value) throws IOException {
+		separate();
+		number(value);
+		return this;
+	}
+	
+	public JsonWriter value(double value) throws IOException {
+		separate();
+		if(Double.isNaN(value) || Double.isInfinite(value)) write(NULL);
+		else if(value == (long) value && Math.abs(value) < 1e15) number((long) value);
+		else write(Double.toString(value));
+		return this;
+	}
+	
+	public JsonWriter value(CharSequence value) throws IOException {
+		separate();
+		if(value == null) write(NULL);
+		else string(value);
+		return this;
+	}
+	
+	/**
+	 * write any supported value, see class description
+	 */
+	public JsonWriter value(Object value) throws IOException {
+		if(value == null) return nullValue();
+		if(value instanceof CharSequence) return value((CharSequence) value);
+		if(value instanceof Number) return number((Number) value);
+		if(value instanceof Boolean) return value(((Boolean) value).booleanValue());
+		if(value instanceof Character) {
+			separate();
+			write('"');
+			escape(((Character) value).charValue());
+			write('"');
+			return this;
+		}
+		if(value instanceof Enum) return value(((Enum<?>) value).name());
+		if(value instanceof Date) return value(((Date) value).getTime());
+		if(value instanceof Calendar) return value(((Calendar) value).getTimeInMillis());
+		if(value instanceof Map) return map((Map<?, ?>) value);
+		if(value instanceof Iterable) {
+			beginArray();
+			for(Object element : (Iterable<?>) value)
+				value(element);
+			return endArray();
+		}
+		if(value.getClass().isArray()) return array(value);
+		return bean(value);
+	}
+	
+	/**
+	 * flush buffered characters to output
+	 */
+	public void flush() throws IOException {
+		drain();
+		if(writer != null) writer.flush();
+		else if(stream != null) stream.flush();
+		else if(appendable instanceof Flushable) ((Flushable) appendable).flush();
+	}
+	
+	/**
+	 * flush and close output
+	 */
+	public void close() throws IOException {
+		flush();
+		if(writer != null) writer.close();
+		else if(stream != null) stream.close();
+		else if(appendable instanceof Closeable) ((Closeable) appendable).close();
+	}
+	
+	private JsonWriter open(char c) throws IOException {
+		separate();
+		if(depth == MAX_DEPTH) throw new IllegalStateException("nesting deeper than " + MAX_DEPTH + ", circular reference?");
+		empty[++depth] = true;
+		write(c);
+		return this;
+	}
+	
+	private JsonWriter close(char c) throws IOException {
+		if(depth == 0) throw new IllegalStateException("not in object or array");
+		depth--;
+		afterName = false;
+		write(c);
+		return this;
+	}
+	
+	/**
+	 * write ',' before value or name unless first in container or just after name
+	 */
+	private void separate() throws IOException {
+		if(afterName) {
+			afterName = false;
+			return;
+		}
+		if(depth == 0) return;
+		if(empty[depth]) empty[depth] = false;
+		else write(',');
+	}
+	
+	private JsonWriter number(Number value) throws IOException {
+		if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+			return value(value.longValue());
+		if(value instanceof Double || value instanceof Float)
+			return value(value.doubleValue());
+		separate();
+		if(value instanceof BigDecimal) write(((BigDecimal) value).toPlainString());
+		else if(value instanceof BigInteger) write(value.toString());
+		else number(value.longValue());
+		return this;
+	}
+	
+	private JsonWriter map(Map<?, ?> map) throws IOException {
+		beginObject();
+		for(Map.Entry<?, ?> entry : map.entrySet()) {
+			Object key = entry.getKey();
+			if(key instanceof CharSequence) name((CharSequence) key);
+			else if(key instanceof Enum) name(((Enum<?>) key).name());
+			else name(String.valueOf(key));
+			value(entry.getValue());
+		}
+		return endObject();
+	}
+	
+	private JsonWriter array(Object array) throws IOException {
+		if(array instanceof char[]) {
+			char[] chars = (char[]) array;
+			separate();
+			write('"');
+			for(char c : chars) escape(c);
+			write('"');
+			return this;
+		}
+		beginArray();
+		if(array instanceof int[]) for(int i : (int[]) array) value(i);
+		else if(array instanceof long[]) for(long l : (long[]) array) value(l);
+		else if(array instanceof Object[]) for(Object o : (Object[]) array) value(o);
+		else for(int i = 0, n = Array.getLength(array); i < n; i++) value(Array.get(array, i));
+		return endArray();
+	}
+	
+	private JsonWriter bean(Object bean) throws IOException {
+		BeanModel model = model(bean.getClass());
+		if(model.codec != null) {
+			model.codec.write(this, bean);
+			return this;
+		}
+		beginObject();
+		for(int i = 0; i < model.properties.length; i++) {
+			Object value = model.properties[i].get(bean);
+			if(value == null) continue;
+			separate();
+			write(model.names[i]);
+			afterName = true;
+			value(value);
+		}
+		return endObject();
+	}
+	
+	private static BeanModel model(Class<?> type) {
+		BeanModel model = models.get(type);
+		if(model == null) model = models.putIfAbsent(type, new BeanModel(type));
+		return model;
+	}
+	
+	private void string(CharSequence s) throws IOException {
+		write('"');
+		for(int i = 0, n = s.length(); i < n; i++) {
+			char c = s.charAt(i);
+			if(c < 128 && ESCAPE[c] == 0) {
+				if(pos == buf.length) drain();
+				buf[pos++] = c;
+			} else escape(c);
+		}
+		write('"');
+	}
+	
+	private void escape(char c) throws IOException {
+		if(pos + 6 > buf.length) drain();
+		if(c < 128 && ESCAPE[c] != 0) {
+			buf[pos++] = '\\';
+			char e = ESCAPE[c];
+			if(e != 'u') {
+				buf[pos++] = e;
+				return;
+			}
+		} else if(c == '\u2028' || c == '\u2029') { // line terminators of javascript
+			buf[pos++] = '\\';
+		} else {
+			buf[pos++] = c;
+			return;
+		}
+		buf[pos++] = 'u';
+		buf[pos++] = HEX[c >> 12 & 0xF];
+		buf[pos++] = HEX[c >> 8 & 0xF];
+		buf[pos++] = HEX[c >> 4 & 0xF];
+		buf[pos++] = HEX[c & 0xF];
+	}
+	
+	private void number(long value) throws IOException {
+		if(value == Long.MIN_VALUE) {
+			write(MIN_LONG);
+			return;
+		}
+		if(pos + 20 > buf.length) drain();
+		if(value < 0) {
+			buf[pos++] = '-';
+			value = -value;
+		}
+		int size = 1;
+		for(long x = value; x >= 10; x /= 10) size++;
+		int end = pos + size;
+		for(int i = end - 1; i >= pos; i--) {
+			buf[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		pos = end;
+	}
+	
+	private void write(char c) throws IOException {
+		if(pos == buf.length) drain();
+		buf[pos++] = c;
+	}
+	
+	private void write(char[] chars) throws IOException {
+		if(pos + chars.length > buf.length) {
+			drain();
+			if(chars.length > buf.length) {
+				sink(chars, 0, chars.length);
+				return;
+			}
+		}
+		System.arraycopy(chars, 0, buf, pos, chars.length);
+		pos += chars.length;
+	}
+	
+	private void write(String s) throws IOException {
+		int n = s.length();
+		if(pos + n > buf.length) drain();
+		if(n > buf.length) {
+			sink(s.toCharArray(), 0, n);
+			return;
+		}
+		s.getChars(0, n, buf, pos);
+		pos += n;
+	}
+	
+	private void drain() throws IOException {
+		if(pos == 0) return;
+		sink(buf, 0, pos);
+		pos = 0;
+	}
+	
+	private void sink(char[] chars, int offset, int length) throws IOException {
+		if(writer != null) writer.write(chars, offset, length);
+		else if(appendable != null) appendable.append(CharBuffer.wrap(chars, offset, length));
+		else encode(chars, offset, length);
+	}
+	
+	/**
+	 * UTF-8 encode, surrogate pair may be split between two calls
+	 */
+	private void encode(char[] chars, int offset, int length) throws IOException {
+		int end = offset + length;
+		while(offset < end) {
+			int n = 0;
+			int chunk = Math.min(end, offset + buf.length);
+			for(; offset < chunk; offset++) {
+				char c = chars[offset];
+				if(pendingHigh != 0) {
+					char high = pendingHigh;
+					pendingHigh = 0;
+					if(Character.isLowSurrogate(c)) {
+						int cp = Character.toCodePoint(high, c);
+						bytes[n++] = (byte) (0xF0 | cp >> 18);
+						bytes[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+						bytes[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+						bytes[n++] = (byte) (0x80 | cp & 0x3F);
+						continue;
+					}
+					bytes[n++] = '?';
+				}
+				if(c < 0x80) bytes[n++] = (byte) c;
+				else if(c < 0x800) {
+					bytes[n++] = (byte) (0xC0 | c >> 6);
+					bytes[n++] = (byte) (0x80 | c & 0x3F);
+				} else if(Character.isHighSurrogate(c)) pendingHigh = c;
+				else if(Character.isLowSurrogate(c)) bytes[n++] = '?';
+				else {
+					bytes[n++] = (byte) (0xE0 | c >> 12);
+					bytes[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+					bytes[n++] = (byte) (0x80 | c & 0x3F);
+				}
+			}
+			stream.write(bytes, 0, n);
+		}
+	}
+	
+	/**
+	 * generated codec, or readable properties and their escaped names with quotes and colon
+	 */
+	private static class BeanModel {
+		
+		final JsonCodec<Object> codec;
+		
+		final Property[] properties;
+		
+		final char[][] names;
+		
+		BeanModel(Class<?> type) {
+			codec = JsonUtils.codec(type);
+			List<Property> readable = new ArrayList<Property>();
+			if(codec == null) {
+				for(Property p : PropertyAccessor.of(type).getProperties())
+					if(p.isReadable()) readable.add(p);
+			}
+			properties = readable.toArray(new Property[readable.size()]);
+			names = new char[properties.length][];
+			for(int i = 0; i < properties.length; i++)
+				names[i] = quote(properties[i].getName());
+		}
+	}
+
+}
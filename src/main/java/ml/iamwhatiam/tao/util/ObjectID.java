@@ -0,0 +1,198 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MongoDB ObjectId compatible 96 bit id:
+ * 4 byte seconds since the Unix epoch, 3 byte machine id, 2 byte process id, 3 byte counter.
+ * Ids from many JVMs can be merged without coordination. Machine and process fingerprint are computed once,
+ * counter starts from a random value and is increased lock-free.
+ * 
+ * @see ID
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class ObjectID {
+	
+	public static final int BYTES = 12;
+	
+	public static final int HEX_LENGTH = BYTES << 1;
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	/**
+	 * byte to two hex chars
+	 */
+	private static final char[] BYTE_HEX = new char[512];
+	
+	/**
+	 * hex char to value, -1 if illegal
+	 */
+	private static final byte[] HEX_VALUE = new byte[128];
+	
+	static {
+		for(int i = 0; i < 256; i++) {
+			BYTE_HEX[i << 1] = HEX[i >>> 4];
+			BYTE_HEX[(i << 1) + 1] = HEX[i & 0xF];
+		}
+		for(int i = 0; i < HEX_VALUE.length; i++)
+			HEX_VALUE[i] = -1;
+		for(int i = 0; i < HEX.length; i++) {
+			HEX_VALUE[HEX[i]] = (byte) i;
+			HEX_VALUE[Character.toUpperCase(HEX[i])] = (byte) i;
+		}
+	}
+	
+	private static final ObjectID instance = new ObjectID();
+	
+	private static final ThreadLocal<char[]> buffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[HEX_LENGTH];
+		}
+	};
+	
+	/**
+	 * 3 byte machine id and 2 byte process id
+	 */
+	private final long fingerprint;
+	
+	private final AtomicInteger counter;
+	
+	private ObjectID() {
+		int machine = ID.machineFingerprint();
+		machine = (machine ^ (machine >>> 24)) & 0xFFFFFF;
+		fingerprint = ((long) machine) << 16 | (ID.processId() & 0xFFFF);
+		counter = new AtomicInteger(new SecureRandom().nextInt());
+	}
+	
+	public static ObjectID getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * @return 24 hex chars id
+	 */
+	public String next() {
+		char[] chars = buffer.get();
+		next(chars, 0);
+		return new String(chars);
+	}
+	
+	/**
+	 * write next id into buffer as hex
+	 * 
+	 * @param buf at least 24 chars from offset
+	 * @param offset start position
+	 * @return position after last written char
+	 */
+	public int next(char[] buf, int offset) {
+		int seconds = (int) (System.currentTimeMillis() / 1000);
+		int count = counter.getAndIncrement();
+		offset = hex(seconds >>> 24, buf, offset);
+		offset = hex(seconds >>> 16, buf, offset);
+		offset = hex(seconds >>> 8, buf, offset);
+		offset = hex(seconds, buf, offset);
+		for(int shift = 32; shift >= 0; shift -= 8)
+			offset = hex((int) (fingerprint >>> shift), buf, offset);
+		offset = hex(count >>> 16, buf, offset);
+		offset = hex(count >>> 8, buf, offset);
+		return hex(count, buf, offset);
+	}
+	
+	/**
+	 * write next id into buffer as binary
+	 * 
+	 * @param out at least 12 bytes from offset
+	 * @param offset start position
+	 * @return position after last written byte
+	 */
+	public int next(byte[] out, int offset) {
+		int seconds = (int) (System.currentTimeMillis() / 1000);
+		int count = counter.getAndIncrement();
+		out[offset++] = (byte) (seconds >>> 24);
+		out[offset++] = (byte) (seconds >>> 16);
+		out[offset++] = (byte) (seconds >>> 8);
+		out[offset++] = (byte) seconds;
+		for(int shift = 32; shift >= 0; shift -= 8)
+			out[offset++] = (byte) (fingerprint >>> shift);
+		out[offset++] = (byte) (count >>> 16);
+		out[offset++] = (byte) (count >>> 8);
+		out[offset++] = (byte) count;
+		return offset;
+	}
+	
+	/**
+	 * decode timestamp from hex form
+	 * 
+	 * @param id 24 hex chars
+	 * @return generated time, in second precision
+	 */
+	public Date getDateTime(CharSequence id) {
+		if(id.length() != HEX_LENGTH) throw new IllegalArgumentException("ObjectId must be 24 hex chars: " + id);
+		long seconds = 0;
+		for(int i = 0; i < 8; i++)
+			seconds = seconds << 4 | valueOf(id.charAt(i));
+		return new Date(seconds * 1000);
+	}
+	
+	/**
+	 * decode timestamp from binary form
+	 * 
+	 * @param id binary id
+	 * @param offset start position
+	 * @return generated time, in second precision
+	 */
+	public Date getDateTime(byte[] id, int offset) {
+		long seconds = (id[offset] & 0xFFL) << 24 | (id[offset + 1] & 0xFF) << 16 | (id[offset + 2] & 0xFF) << 8 | (id[offset + 3] & 0xFF);
+		return new Date(seconds * 1000);
+	}
+	
+	/**
+	 * @return 3 byte machine id and 2 byte process id
+	 */
+	public long getFingerprint() {
+		return fingerprint;
+	}
+	
+	private static int hex(int b, char[] buf, int offset) {
+		int index = (b & 0xFF) << 1;
+		buf[offset] = BYTE_HEX[index];
+		buf[offset + 1] = BYTE_HEX[index + 1];
+		return offset + 2;
+	}
+	
+	private static int valueOf(char c) {
+		int value = c < 128 ? HEX_VALUE[c] : -1;
+		if(value < 0) throw new IllegalArgumentException("illegal hex character [" + c + "]");
+		return value;
+	}
+
+}
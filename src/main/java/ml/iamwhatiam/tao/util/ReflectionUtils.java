@@ -23,20 +23,31 @@
  */
 package ml.iamwhatiam.tao.util;
 
-import java.lang.reflect.Constructor;
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * reflection utilities
+ * reflection utilities.
+ * <p>
+ * Methods resolved by {@link #resolveMethod(Class, String, List)} are cached per class and signature,
+ * and made accessible once, so repeated {@code invokeMethod} skips lookup and access check setup.
+ * Misses are cached as well, see {@link WeakCache} for reference strength.
+ * Class names resolved by {@link #findClass(String, ClassLoader)} are cached per class loader the same way.
  * 
  * @author iMinusMinus
  * @version 0.0.1
@@ -47,6 +58,30 @@ public class ReflectionUtils {
     private static Map<String, Class<?>> primitive;
     
     private static final Logger log = LoggerFactory.getLogger(ReflectionUtils.class);
+    
+    /**
+     * class -&gt; signature -&gt; accessible method or {@link #NOT_FOUND}
+     */
+    private static final WeakCache<Class<?>, ConcurrentMap<Signature, Object>> methods = 
+    		new WeakCache<Class<?>, ConcurrentMap<Signature, Object>>();
+    
+    private static final Object NOT_FOUND = new Object();
+    
+    /**
+     * class loader -&gt; class name -&gt; class or {@link #NOT_FOUND}
+     */
+    private static final WeakCache<ClassLoader, ConcurrentMap<String, Object>> classes = 
+    		new WeakCache<ClassLoader, ConcurrentMap<String, Object>>();
+    
+    /**
+     * classes of bootstrap class loader, never unloaded
+     */
+    private static final ConcurrentMap<String, Object> bootstrapClasses = new ConcurrentHashMap<String, Object>();
+    
+    /**
+     * method -&gt; generic parameter types, getGenericParameterTypes copies array every call
+     */
+    private static final WeakCache<Method, Type[]> parameterTypes = new WeakCache<Method, Type[]>();
 
     static {
         primitive = new HashMap<String, Class<?>>();
@@ -85,48 +120,85 @@ public class ReflectionUtils {
     }
 
     /**
-     * find class by class name with given class loader.
+     * find class by class name with given class loader. 
+     * Name can be primitive type, binary name, array descriptor like <code>[Ljava.lang.String;</code>, 
+     * or source form array like <code>int[]</code>. 
+     * Class is loaded but not initialized. Result, including miss, is cached per class loader,
+     * so class defined after a miss can not be found by same loader.
      * 
      * @param clazz class name
-     * @param loader class loader
-     * @return Class
+     * @param loader class loader, null means bootstrap class loader
+     * @return Class, or null if not found
      */
     public static Class<?> findClass(String clazz, ClassLoader loader) {
     	Class<?> primitiveType = primitive.get(clazz);
         if (primitiveType != null)
             return primitiveType;
+        ConcurrentMap<String, Object> cache = classCache(loader);
+        Object cached = cache.get(clazz);
+        if(cached == null) {
+            cached = loadClass(clazz, loader);
+            Object previous = cache.putIfAbsent(clazz, cached);
+            if(previous != null) cached = previous;
+        }
+        return cached == NOT_FOUND ? null : (Class<?>) cached;
+    }
+    
+    private static ConcurrentMap<String, Object> classCache(ClassLoader loader) {
+        if(loader == null) return bootstrapClasses;
+        ConcurrentMap<String, Object> cache = classes.get(loader);
+        if(cache != null) return cache;
+        return classes.putIfAbsent(loader, new ConcurrentHashMap<String, Object>());
+    }
+    
+    /**
+     * @return class or {@link #NOT_FOUND}
+     */
+    private static Object loadClass(String clazz, ClassLoader loader) {
+        if(clazz.endsWith("[]")) {
+            Class<?> component = findClass(clazz.substring(0, clazz.length() - 2).trim(), loader);
+            if(component == null || component == Void.TYPE) return NOT_FOUND;
+            return Array.newInstance(component, 0).getClass();
+        }
         try {
-            return Class.forName(clazz, true, loader);
+            return Class.forName(clazz, false, loader);
         } catch (ClassNotFoundException e) {
-            log.error(e.getMessage(), e);
-            return null;
+            if(log.isDebugEnabled()) log.debug("class [{}] not found", clazz);
+        } catch (LinkageError e) {
+            if(log.isDebugEnabled()) log.debug("class [{}] can not be loaded: {}", clazz, e.toString());
         }
-
+        return NOT_FOUND;
     }
 
     /**
-     * find method of specified class, include super class, but exclude interface
+     * find method of specified class, include super class and default method of interface,
+     * bridge method and overridden method excluded
      * 
      * @param clazz class
      * @param methodName method name
-     * @return method list
+     * @return method list, method of sub class first
      */
     public static List<Method> findMethod(Class<?> clazz, String methodName) {
         assert(clazz != null);
         List<Method> methods = new ArrayList<Method>();
-        if(!Object.class.equals(clazz)) {
-            Method[] m = clazz.getDeclaredMethods();
-            for(Method method : m) {
-                if(method.getName().equals(methodName))
+        for(Class<?> c = clazz; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+            for(Method method : c.getDeclaredMethods()) {
+                if(method.getName().equals(methodName) && !method.isBridge() && !overridden(methods, method))
+                    methods.add(method);
+            }
+        }
+        for(Class<?> c : interfaces(clazz)) {
+            for(Method method : c.getDeclaredMethods()) {
+                if(method.getName().equals(methodName) && !method.isBridge() && 
+                		(clazz.isInterface() || isDefault(method)) && !overridden(methods, method))
                     methods.add(method);
             }
-            clazz = clazz.getSuperclass();
         }
         return methods;
     }
     
     /**
-     * find method of specified class and specified parameter types, include super class, but exclude interface
+     * find method of specified class and specified parameter types, include super class and default method of interface
      * 
      * @see #findMethod(Class, String, List)
      * @param clazz class name
@@ -141,7 +213,8 @@ public class ReflectionUtils {
     }
     
     /**
-     * find method of specified class and specified parameter types, include super class, but exclude interface
+     * find method of specified class and specified parameter types, include super class and default method of interface,
+     * bridge method excluded
      * 
      * @param clazz class
      * @param methodName method name
@@ -150,32 +223,99 @@ public class ReflectionUtils {
      */
     public static Method findMethod(Class<?> clazz, String methodName, List<String> parameterTypes) {
         assert(clazz != null);
-        if(!Object.class.equals(clazz)) {
-            Method[] method = clazz.getDeclaredMethods();
-            for(Method m : method) {
-                if(m.getName().equals(methodName)) {
-                    Class<?>[] c = m.getParameterTypes();
-                    TypeVariable<Method>[] t = m.getTypeParameters();
-                    if(c.length == 0 && (parameterTypes == null || parameterTypes.isEmpty())) return m;
-                    else if(c.length != parameterTypes.size()) continue;
-                    int same = 0, step = 0;
-                    for(int i = 0; i < c.length; i++) {
-                        if(c[i].getName().equals(parameterTypes.get(i)) || 
-                                c[i].equals(primitive.get(parameterTypes.get(i)))) 
-                            same++;
-                        else if(step < t.length && t[step].getName().equals(parameterTypes.get(i)) && c[i].equals(Object.class)) {
-                            step++;
-                            same++;
-                        }
-                    }
-                    if(same == c.length) return m;
+        for(Class<?> c = clazz; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+            Method m = match(c.getDeclaredMethods(), methodName, parameterTypes, false);
+            if(m != null) return m;
+        }
+        for(Class<?> c : interfaces(clazz)) {
+            Method m = match(c.getDeclaredMethods(), methodName, parameterTypes, !clazz.isInterface());
+            if(m != null) return m;
+        }
+        return null;
+    }
+    
+    private static Method match(Method[] candidates, String methodName, List<String> parameterTypes, boolean defaultOnly) {
+        int size = parameterTypes == null ? 0 : parameterTypes.size();
+        for(Method m : candidates) {
+            if(!m.getName().equals(methodName) || m.isBridge() || (defaultOnly && !isDefault(m))) continue;
+            Class<?>[] c = m.getParameterTypes();
+            if(c.length != size) continue;
+            TypeVariable<Method>[] t = m.getTypeParameters();
+            int same = 0, step = 0;
+            for(int i = 0; i < c.length; i++) {
+                if(c[i].getName().equals(parameterTypes.get(i)) || 
+                        c[i].equals(primitive.get(parameterTypes.get(i)))) 
+                    same++;
+                else if(step < t.length && t[step].getName().equals(parameterTypes.get(i)) && c[i].equals(Object.class)) {
+                    step++;
+                    same++;
                 }
             }
-            clazz = clazz.getSuperclass();
+            if(same == c.length) return m;
         }
         return null;
     }
     
+    /**
+     * @return interfaces implemented by class and its super classes, including super interfaces, nearest first
+     */
+    private static Set<Class<?>> interfaces(Class<?> clazz) {
+        Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for(Class<?> c = clazz; c != null; c = c.getSuperclass())
+            for(Class<?> i : c.getInterfaces())
+                interfaces.add(i);
+        List<Class<?>> queue = new ArrayList<Class<?>>(interfaces);
+        for(int i = 0; i < queue.size(); i++) {
+            for(Class<?> s : queue.get(i).getInterfaces())
+                if(interfaces.add(s)) queue.add(s);
+        }
+        return interfaces;
+    }
+    
+    /**
+     * interface method with body: neither abstract nor static
+     */
+    private static boolean isDefault(Method method) {
+        return (method.getModifiers() & (Modifier.ABSTRACT | Modifier.STATIC)) == 0;
+    }
+    
+    private static boolean overridden(List<Method> found, Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for(Method m : found)
+            if(Arrays.equals(m.getParameterTypes(), parameterTypes)) return true;
+        return false;
+    }
+    
+    /**
+     * cached {@link #findMethod(Class, String, List)}, returned method is accessible
+     * 
+     * @param clazz class
+     * @param methodName method name
+     * @param parameterTypes parameter type name
+     * @return Method or null
+     */
+    public static Method resolveMethod(Class<?> clazz, String methodName, List<String> parameterTypes) {
+        ConcurrentMap<Signature, Object> cache = methodCache(clazz);
+        Signature signature = new Signature(methodName, parameterTypes);
+        Object cached = cache.get(signature);
+        if(cached != null) return cached == NOT_FOUND ? null : (Method) cached;
+        Method method = findMethod(clazz, methodName, parameterTypes);
+        if(method == null) {
+            if(log.isDebugEnabled()) log.debug("method [{}{}] not found in [{}]", new Object[] {methodName, parameterTypes, clazz.getName()});
+            cache.putIfAbsent(signature.copy(), NOT_FOUND);
+            return null;
+        }
+        method.setAccessible(true);
+        Object previous = cache.putIfAbsent(signature.copy(), method);
+        return previous instanceof Method ? (Method) previous : method;
+    }
+    
+    private static ConcurrentMap<Signature, Object> methodCache(Class<?> clazz) {
+        ConcurrentMap<Signature, Object> cache = methods.get(clazz);
+        if(cache != null) return cache;
+        return methods.putIfAbsent(clazz, new ConcurrentHashMap<Signature, Object>());
+    }
+    
     /**
      * based on class name, produce a instance
      *
@@ -188,7 +328,6 @@ public class ReflectionUtils {
     }
 
     /**
-     * class must have no arguments constructor!
      * <ul>we can create a object as below:
      * <li>new</li>
      * <li>class.newInstance()</li>
@@ -196,23 +335,18 @@ public class ReflectionUtils {
      * <li>new ObjectInputStream(is).readObject()</li>
      * <li>object.clone()</li>
      * </ul>
+     * Constructor is resolved once by {@link Instantiator}, class without no arguments constructor
+     * is instantiated by serialization constructor.
      * 
      * @param clazz class
-     * @return instance or null, if class have not no arguments constructor 
+     * @return instance or null, if class can not be instantiated or constructor failed
      */
     public static <T> T newInstance(Class<T> clazz) {
         assert(!clazz.isInterface());
         try {
-            if(clazz.isMemberClass() && (clazz.getModifiers() & Modifier.STATIC) == 0) {
-                Class<?> ec = clazz.getEnclosingClass();
-                Object outter = newInstance(ec);
-                Constructor<?> c = clazz.getDeclaredConstructor(ec);;
-                c.setAccessible(true);
-                return (T) c.newInstance(outter);
-            }
-            return clazz.newInstance();//if constructor is private, throw SecurityException, or use newInstance0
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
+            return Instantiator.of(clazz).newInstance();
+        } catch (RuntimeException e) {
+            log.error("instantiate [{}] failed: {}", clazz.getName(), e.toString());
             return null;
         }
     }
@@ -227,9 +361,13 @@ public class ReflectionUtils {
      */
     public static Object invokeMethod(String clazz, String methodName, List<String> parameterTypes, Object[] parameters) {
     	Class<?> klazz = findClass(clazz);
-        Object target = newInstance(klazz);
-        Method method = findMethod(klazz, methodName, parameterTypes);
-        return invokeMethod(method, target, parameters);
+    	if(klazz == null) return null;
+        Method method = resolveMethod(klazz, methodName, parameterTypes);
+        if(method == null) {
+            log.error("method [{}{}] not found in [{}]", new Object[] {methodName, parameterTypes, clazz});
+            return null;
+        }
+        return invokeMethod(method, parameters);
     }
     
     /**
@@ -241,29 +379,91 @@ public class ReflectionUtils {
     public static Object invokeMethod(Method method, Object[] args) {
     	Class<?> klazz = method.getDeclaringClass();
     	Object target = null;
-    	if((method.getModifiers() & Modifier.STATIC) != 0)
-    		target = klazz;
-    	else target = newInstance(klazz);
+    	if((method.getModifiers() & Modifier.STATIC) == 0)
+    		target = newInstance(klazz);
     	return invokeMethod(method, target, args);
     }
     
     /**
-     * invoke method on target using args
+     * decode JSON array arguments by generic parameter types in one pass, then invoke.
+     * Use method from {@link #resolveMethod(Class, String, List)}, so cached parameter types are reused
+     * 
+     * @param method class method
+     * @param target instance, or null if method is static
+     * @param json JSON array, element count equals to parameter count
+     * @return the result after invoke method
+     * @throws IllegalArgumentException if arguments is malformed
+     * @see JsonUtils#parse(String, Type[])
+     */
+    public static Object invokeMethod(Method method, Object target, String json) {
+        Type[] types = parameterTypes.get(method);
+        if(types == null) types = parameterTypes.putIfAbsent(method, method.getGenericParameterTypes());
+        return invokeMethod(method, target, JsonUtils.parse(json, types));
+    }
+    
+    /**
+     * invoke method on target using args.
+     * Method from {@link #resolveMethod(Class, String, List)} is already accessible, 
+     * others are made accessible only after access is denied
      * @param method class method
-     * @param target instance or class if method is static
+     * @param target instance, or null if method is static
      * @param args arguments
      * @return the result after invoke method
      */
     public static Object invokeMethod(Method method, Object target, Object[] args) {
         assert(method != null);
-        assert(target != null);
+        assert(target != null || (method.getModifiers() & Modifier.STATIC) != 0);
         try {
-            method.setAccessible(true);
-            return method.invoke(target, args);
+            try {
+                return method.invoke(target, args);
+            } catch (IllegalAccessException e) {
+                method.setAccessible(true);
+                return method.invoke(target, args);
+            }
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return null;
         } 
     }
 
+    /**
+     * method name and parameter type names
+     */
+    private static final class Signature {
+    	
+    	private final String name;
+    	
+    	private final List<String> parameterTypes;
+    	
+    	private final int hash;
+    	
+    	Signature(String name, List<String> parameterTypes) {
+    		this.name = name;
+    		this.parameterTypes = parameterTypes == null || parameterTypes.isEmpty() ? null : parameterTypes;
+    		this.hash = 31 * name.hashCode() + (this.parameterTypes == null ? 0 : this.parameterTypes.hashCode());
+    	}
+    	
+    	/**
+    	 * @return signature not sharing parameter list with caller
+    	 */
+    	Signature copy() {
+    		if(parameterTypes == null) return this;
+    		return new Signature(name, Arrays.asList(parameterTypes.toArray(new String[parameterTypes.size()])));
+    	}
+    	
+    	@Override
+    	public int hashCode() {
+    		return hash;
+    	}
+    	
+    	@Override
+    	public boolean equals(Object obj) {
+    		if(this == obj) return true;
+    		if(!(obj instanceof Signature)) return false;
+    		Signature that = (Signature) obj;
+    		return hash == that.hash && name.equals(that.name) && 
+    				(parameterTypes == null ? that.parameterTypes == null : parameterTypes.equals(that.parameterTypes));
+    	}
+    }
+
 }
@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * time ordered UUID(version 7):
+ * 48 bit Unix milliseconds, 4 bit version, 12 bit rand_a, 2 bit variant, 62 bit rand_b.
+ * <p>
+ * rand_a is used as counter within one millisecond, started from a small random value, so UUIDs are strictly increasing within a JVM.
+ * If counter overflow, the next millisecond is borrowed. rand_b comes from a thread local SplitMix64 sequence 
+ * seeded once by {@link SecureRandom}, so generating never blocks for entropy.
+ * 
+ * @see ID
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class UUIDv7 {
+	
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	private static final int COUNTER_BITS = 12;
+	
+	private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+	
+	/**
+	 * counter starts below this, leave at least 3072 increments per millisecond
+	 */
+	private static final long COUNTER_SEED_MASK = 0x3FF;
+	
+	private static final long VERSION = 0x7000L;
+	
+	private static final long VARIANT = 0x8000000000000000L;
+	
+	private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+	
+	private static final AtomicLong seeder = new AtomicLong(new SecureRandom().nextLong());
+	
+	private static final ThreadLocal<long[]> random = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[] {mix(seeder.addAndGet(GOLDEN_GAMMA))};
+		}
+	};
+	
+	private static final UUIDv7 instance = new UUIDv7();
+	
+	/**
+	 * last issued milliseconds and counter: 48 bit timestamp, 12 bit counter
+	 */
+	private final AtomicLong latest = new AtomicLong();
+	
+	public static UUIDv7 getInstance() {
+		return instance;
+	}
+	
+	public UUID next() {
+		long[] seed = random.get();
+		long tick = reserve(1, seed);
+		return new UUID(mostSignificantBits(tick), leastSignificantBits(seed));
+	}
+	
+	/**
+	 * fill array with UUIDs, every UUID takes two element: most significant bits and least significant bits
+	 * 
+	 * @param out array of even length
+	 * @return UUID count
+	 */
+	public int nextBatch(long[] out) {
+		if((out.length & 1) != 0) throw new IllegalArgumentException("array length must be even");
+		return nextBatch(out, 0, out.length >>> 1);
+	}
+	
+	/**
+	 * fill array with UUIDs, every UUID takes two element: most significant bits and least significant bits.
+	 * The whole batch is reserved by one atomic operation.
+	 * 
+	 * @param out output array
+	 * @param offset start position
+	 * @param count UUID count
+	 * @return UUID count
+	 */
+	public int nextBatch(long[] out, int offset, int count) {
+		if(count <= 0) return 0;
+		if(offset < 0 || out.length - offset < count << 1) throw new IndexOutOfBoundsException();
+		long[] seed = random.get();
+		long tick = reserve(count, seed);
+		for(int i = 0; i < count; i++) {
+			out[offset++] = mostSignificantBits(tick + i);
+			out[offset++] = leastSignificantBits(seed);
+		}
+		return count;
+	}
+	
+	/**
+	 * @param uuid version 7 UUID
+	 * @return time embedded
+	 */
+	public static Date getDateTime(UUID uuid) {
+		if(uuid.version() != 7) throw new IllegalArgumentException("not a version 7 UUID: " + uuid);
+		return new Date(uuid.getMostSignificantBits() >>> 16);
+	}
+	
+	/**
+	 * reserve counters
+	 * 
+	 * @param count how many
+	 * @param seed thread random state
+	 * @return first tick reserved
+	 */
+	private long reserve(int count, long[] seed) {
+		for(;;) {
+			long last = latest.get();
+			long now = System.currentTimeMillis() << COUNTER_BITS;
+			long first = now > last ? now | (next(seed) & COUNTER_SEED_MASK) : last + 1;
+			if(latest.compareAndSet(last, first + count - 1))
+				return first;
+		}
+	}
+	
+	private static long mostSignificantBits(long tick) {
+		return (tick >>> COUNTER_BITS) << 16 | VERSION | (tick & COUNTER_MASK);
+	}
+	
+	private static long leastSignificantBits(long[] seed) {
+		return VARIANT | (next(seed) & RAND_B_MASK);
+	}
+	
+	private static long next(long[] seed) {
+		return mix(seed[0] += GOLDEN_GAMMA);
+	}
+	
+	/**
+	 * SplitMix64 finalizer
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
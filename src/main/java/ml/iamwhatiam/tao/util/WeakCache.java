@@ -0,0 +1,125 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * per class or per class loader metadata cache, lookup takes no lock.
+ * Key is weakly referenced and compared by identity, value softly, because value usually refers to the key
+ * (method refers to its class, class to its loader), which would otherwise keep class loader alive.
+ * Entries of collected keys are expunged on insert.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+final class WeakCache<K, V> {
+	
+	private final ConcurrentMap<Object, SoftReference<V>> entries = new ConcurrentHashMap<Object, SoftReference<V>>();
+	
+	private final ReferenceQueue<K> unloaded = new ReferenceQueue<K>();
+	
+	/**
+	 * @return cached value, or null if absent or cleared
+	 */
+	V get(K key) {
+		SoftReference<V> ref = entries.get(new Probe(key));
+		return ref == null ? null : ref.get();
+	}
+	
+	/**
+	 * @return value already cached, or the given one
+	 */
+	V putIfAbsent(K k, V value) {
+		for(Reference<? extends K> stale; (stale = unloaded.poll()) != null;)
+			entries.remove(stale);
+		WeakKey<K> key = new WeakKey<K>(k, unloaded);
+		SoftReference<V> ref = new SoftReference<V>(value);
+		for(;;) {
+			SoftReference<V> previous = entries.putIfAbsent(key, ref);
+			if(previous == null) return value;
+			V existing = previous.get();
+			if(existing != null) return existing;
+			if(entries.replace(key, previous, ref)) return value;
+		}
+	}
+	
+	/**
+	 * weak key compared by identity
+	 */
+	private static final class WeakKey<K> extends WeakReference<K> {
+		
+		private final int hash;
+		
+		WeakKey(K key, ReferenceQueue<K> queue) {
+			super(key, queue);
+			hash = System.identityHashCode(key);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(obj instanceof Probe) return get() == ((Probe) obj).key;
+			if(!(obj instanceof WeakKey)) return false;
+			Object key = get();
+			return key != null && key == ((WeakKey<?>) obj).get();
+		}
+	}
+	
+	/**
+	 * lookup key, cheaper than creating a reference object
+	 */
+	private static final class Probe {
+		
+		private final Object key;
+		
+		Probe(Object key) {
+			this.key = key;
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(key);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof WeakKey ? ((WeakKey<?>) obj).get() == key : 
+				obj instanceof Probe && ((Probe) obj).key == key;
+		}
+	}
+
+}
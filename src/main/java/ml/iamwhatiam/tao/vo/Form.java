@@ -26,6 +26,8 @@ package ml.iamwhatiam.tao.vo;
 import java.io.Serializable;
 import java.util.Date;
 
+import ml.iamwhatiam.tao.util.JsonUtils;
+
 /**
  * web application response bean 
  * 
@@ -92,15 +94,11 @@ public class Form implements Serializable {
 	
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder("{");
-		if(epoch != null)
-			sb.append("\"epoch\":").append(epoch).append(",");
-		if(elapse != null)
-			sb.append("\"elapse\":").append(elapse).append(",");
-		sb.append("\"oid\":").append("\"").append(oid).append("\"");
-		if(alt != null)
-			sb.append(",").append("\"alt\":\"").append(alt).append("\"");
-		return sb.append("}").toString();
+		try {
+			return JsonUtils.stringify(this);
+		} catch (RuntimeException e) {// cycle, too deep or getter failure, never fail logging
+			return getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(this));
+		}
 	}
 
 }
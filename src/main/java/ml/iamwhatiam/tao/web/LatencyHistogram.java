@@ -0,0 +1,235 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.web;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * lock free latency histogram, HdrHistogram like log-linear buckets: values below 32 have exact bucket,
+ * every power of two above is split into 32 linear sub-buckets, so relative error is less than 1/32.
+ * Values are microseconds, up to about 76 hours, larger one is clamped.
+ * <p>
+ * Recording is one increment on a bucket of the stripe picked by thread id, stripes are merged when {@link #snapshot()} taken.
+ * Histograms are registered by key, like URI template, at most <code>ml.iamwhatiam.tao.latency.keys</code>(default 256) keys,
+ * later keys share {@link #OTHERS}.
+ * 
+ * @see MdcFilter
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class LatencyHistogram {
+	
+	public static final String KEYS_PROPERTY = "ml.iamwhatiam.tao.latency.keys";
+	
+	public static final String OTHERS = "OTHERS";
+	
+	static final int SUB_BUCKET_BITS = 5;
+	
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	static final int MAX_EXPONENT = 37;
+	
+	static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	
+	static final long HIGHEST = (1L << (MAX_EXPONENT + 1)) - 1;
+	
+	private static final int STRIPES = stripes();
+	
+	private static final int MAX_KEYS = Integer.getInteger(KEYS_PROPERTY, 256).intValue();
+	
+	private static final ConcurrentMap<String, LatencyHistogram> registry = new ConcurrentHashMap<String, LatencyHistogram>();
+	
+	/**
+	 * per stripe bucket counts, last slot is sum of values
+	 */
+	private final AtomicLongArray[] stripes;
+	
+	private final AtomicLong max = new AtomicLong();
+	
+	public LatencyHistogram() {
+		stripes = new AtomicLongArray[STRIPES];
+		for(int i = 0; i < STRIPES; i++)
+			stripes[i] = new AtomicLongArray(BUCKETS + 1);
+	}
+	
+	/**
+	 * @param key histogram name
+	 * @return registered histogram of key, or of {@link #OTHERS} if too many keys
+	 */
+	public static LatencyHistogram of(String key) {
+		LatencyHistogram histogram = registry.get(key);
+		if(histogram != null) return histogram;
+		if(registry.size() >= MAX_KEYS) {
+			key = OTHERS;
+			histogram = registry.get(key);
+			if(histogram != null) return histogram;
+		}
+		histogram = new LatencyHistogram();
+		LatencyHistogram previous = registry.putIfAbsent(key, histogram);
+		return previous != null ? previous : histogram;
+	}
+	
+	/**
+	 * pull api: snapshot of every registered histogram, sorted by key
+	 */
+	public static Map<String, Snapshot> snapshots() {
+		Map<String, Snapshot> snapshots = new TreeMap<String, Snapshot>();
+		for(Map.Entry<String, LatencyHistogram> entry : registry.entrySet())
+			snapshots.put(entry.getKey(), entry.getValue().snapshot());
+		return snapshots;
+	}
+	
+	/**
+	 * drop all registered histograms
+	 */
+	public static void reset() {
+		registry.clear();
+	}
+	
+	/**
+	 * @param micros latency in microseconds
+	 */
+	public void record(long micros) {
+		if(micros < 0) micros = 0;
+		else if(micros > HIGHEST) micros = HIGHEST;
+		AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & (STRIPES - 1)];
+		stripe.incrementAndGet(index(micros));
+		stripe.addAndGet(BUCKETS, micros);
+		long current;
+		while(micros > (current = max.get()) && !max.compareAndSet(current, micros));
+	}
+	
+	/**
+	 * merge stripes, concurrent records may be partially visible
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		long count = 0, sum = 0;
+		for(AtomicLongArray stripe : stripes) {
+			for(int i = 0; i < BUCKETS; i++) {
+				long c = stripe.get(i);
+				counts[i] += c;
+				count += c;
+			}
+			sum += stripe.get(BUCKETS);
+		}
+		return new Snapshot(counts, count, sum, max.get());
+	}
+	
+	static int index(long value) {
+		if(value < SUB_BUCKETS) return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + (shift << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+	
+	/**
+	 * @return largest value of bucket
+	 */
+	static long highestEquivalent(int index) {
+		if(index < SUB_BUCKETS) return index;
+		int shift = (index - SUB_BUCKETS) >>> SUB_BUCKET_BITS;
+		long sub = (index - SUB_BUCKETS) & (SUB_BUCKETS - 1);
+		return ((SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+	}
+	
+	private static int stripes() {
+		int n = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+		return Math.min(Math.max(n, 1), 16);
+	}
+	
+	/**
+	 * immutable view of histogram, values are microseconds
+	 */
+	public static class Snapshot {
+		
+		private final long[] counts;
+		
+		private final long count;
+		
+		private final long sum;
+		
+		private final long max;
+		
+		Snapshot(long[] counts, long count, long sum, long max) {
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+		
+		/**
+		 * @param quantile in [0, 1]
+		 * @return value which quantile of records are less than or equal to, within histogram precision
+		 */
+		public long valueAt(double quantile) {
+			if(count == 0) return 0;
+			long target = (long) Math.ceil(quantile * count);
+			if(target < 1) target = 1;
+			long seen = 0;
+			for(int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if(seen >= target) return Math.min(highestEquivalent(i), max);
+			}
+			return max;
+		}
+		
+		public long getP50() {
+			return valueAt(0.5);
+		}
+		
+		public long getP99() {
+			return valueAt(0.99);
+		}
+		
+		public long getP999() {
+			return valueAt(0.999);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getMax() {
+			return max;
+		}
+		
+		public double getMean() {
+			return count == 0 ? 0 : (double) sum / count;
+		}
+		
+		@Override
+		public String toString() {
+			return "{\"count\":" + count + ",\"mean\":" + (long) getMean() + ",\"p50\":" + getP50() + ",\"p99\":" + getP99()
+					+ ",\"p999\":" + getP999() + ",\"max\":" + max + "}";
+		}
+	}
+
+}
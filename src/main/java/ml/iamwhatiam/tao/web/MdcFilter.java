@@ -25,24 +25,41 @@ package ml.iamwhatiam.tao.web;
 
 import java.io.IOException;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
-
-import ml.iamwhatiam.tao.util.ID;
 
 /**
  * Application trace id.refer Google Dapper, Ali eagle eye. In Ali eagle, there are two kinds of thread local id:
  * trace id and rpc id. A successor rpc id take caller rpc id as prefix.
+ * <p>
+ * Trace id and rpc id are read from request headers, or a new trace is started. The {@link TraceContext} is bound to
+ * current thread, put into MDC, and echoed in response headers. Outgoing calls should propagate
+ * {@link TraceContext#child()}.
+ * <p>
+ * Wall time of every request is recorded into {@link LatencyHistogram} keyed by method and URI template,
+ * whose id-like path segments are replaced by <code>{id}</code>. Request slower than <code>slowThreshold</code>
+ * milliseconds is logged with its trace id, non-positive value disables slow log.
+ * <p>
+ * Context is kept as request attribute and reused by nested or async dispatch. If request goes async, an {@link AsyncListener}
+ * records latency on completion and logs timeout or error with context attached. Thread handoff should use
+ * {@link TraceExecutor} or {@link TraceContext#wrap(Runnable)}.
  * @web.filter name="mdc"
  * @web.filter-init-param name="mdcKey" value="tid"
+ * @web.filter-init-param name="rpcKey" value="rid"
+ * @web.filter-init-param name="traceHeader" value="X-Trace-Id"
+ * @web.filter-init-param name="rpcHeader" value="X-Rpc-Id"
+ * @web.filter-init-param name="slowThreshold" value="1000"
  * 
  * @author iMinusMinus
  * @version 0.0.1
@@ -56,27 +73,176 @@ public class MdcFilter implements Filter {
 	
 	private final String MDC_KEY = "tid";
 	
+	private final String RPC_KEY_NAME = "rpcKey";
+	
+	private final String RPC_KEY = "rid";
+	
+	private final String TRACE_HEADER_NAME = "traceHeader";
+	
+	public static final String TRACE_HEADER = "X-Trace-Id";
+	
+	private final String RPC_HEADER_NAME = "rpcHeader";
+	
+	public static final String RPC_HEADER = "X-Rpc-Id";
+	
+	private final String SLOW_THRESHOLD_NAME = "slowThreshold";
+	
+	private final long SLOW_THRESHOLD = 1000;
+	
 	private String tid;
+	
+	private String rid;
+	
+	private String traceHeader;
+	
+	private String rpcHeader;
+	
+	/**
+	 * nanoseconds
+	 */
+	private long slowThreshold;
+	
+	static final String CONTEXT_ATTRIBUTE = TraceContext.class.getName();
 
 	public void init(FilterConfig config) throws ServletException {
 		tid = config.getInitParameter(MDC_KEY_NAME);
 		if(tid == null) tid = MDC_KEY;
-		if(log.isDebugEnabled()) log.debug("set context trace key [{}]", tid);
+		rid = config.getInitParameter(RPC_KEY_NAME);
+		if(rid == null) rid = RPC_KEY;
+		traceHeader = config.getInitParameter(TRACE_HEADER_NAME);
+		if(traceHeader == null) traceHeader = TRACE_HEADER;
+		rpcHeader = config.getInitParameter(RPC_HEADER_NAME);
+		if(rpcHeader == null) rpcHeader = RPC_HEADER;
+		String threshold = config.getInitParameter(SLOW_THRESHOLD_NAME);
+		try {
+			slowThreshold = (threshold == null ? SLOW_THRESHOLD : Long.parseLong(threshold.trim())) * 1000000L;
+		} catch (NumberFormatException e) {
+			throw new ServletException("illegal " + SLOW_THRESHOLD_NAME + ": " + threshold, e);
+		}
+		TraceContext.traceKey = tid;
+		TraceContext.rpcKey = rid;
+		if(log.isDebugEnabled()) log.debug("set context trace key [{}], rpc key [{}]", tid, rid);
 	}
 	
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
-		MDC.put(tid, ID.getInstance().next());
+		Object attribute = request.getAttribute(CONTEXT_ATTRIBUTE);
+		boolean dispatched = attribute instanceof TraceContext;
+		TraceContext context;
+		if(dispatched) context = (TraceContext) attribute;
+		else {
+			if(request instanceof HttpServletRequest) {
+				HttpServletRequest req = (HttpServletRequest) request;
+				context = TraceContext.join(req.getHeader(traceHeader), req.getHeader(rpcHeader));
+			} else context = TraceContext.root();
+			if(response instanceof HttpServletResponse) {
+				HttpServletResponse resp = (HttpServletResponse) response;
+				resp.setHeader(traceHeader, context.getTraceId());
+				resp.setHeader(rpcHeader, context.getRpcId());
+			}
+			request.setAttribute(CONTEXT_ATTRIBUTE, context);
+		}
+		TraceContext previous = TraceContext.attach(context);
+		long start = System.nanoTime();
+		boolean async = false;
 		try {
 			chain.doFilter(request, response);
+			async = request.isAsyncStarted();
+			if(async && !dispatched) request.getAsyncContext().addListener(new TraceListener(context, start));
 		} finally {
-			MDC.remove(tid);
+			if(!async && !dispatched) record(request, context, System.nanoTime() - start);
+			TraceContext.detach(previous);
 		}
 		
 	}
 	
+	private void record(ServletRequest request, TraceContext context, long elapsed) {
+		String key = request instanceof HttpServletRequest ? template((HttpServletRequest) request) : LatencyHistogram.OTHERS;
+		LatencyHistogram.of(key).record(elapsed / 1000);
+		if(slowThreshold > 0 && elapsed >= slowThreshold)
+			log.warn("slow request [{}] took {} ms, trace id [{}]", new Object[] {key, elapsed / 1000000, context.getTraceId()});
+	}
+	
+	static String template(HttpServletRequest request) {
+		String uri = request.getRequestURI();
+		StringBuilder sb = new StringBuilder(request.getMethod().length() + 1 + uri.length()).append(request.getMethod()).append(' ');
+		int end = uri.indexOf(';');
+		if(end < 0) end = uri.length();
+		for(int i = 0; i < end;) {
+			int next = uri.indexOf('/', i);
+			if(next < 0 || next > end) next = end;
+			if(isVariable(uri, i, next)) sb.append("{id}");
+			else sb.append(uri, i, next);
+			if(next < end) sb.append('/');
+			i = next + 1;
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * numeric, or long segment containing digit, such as encoded {@link ml.iamwhatiam.tao.util.ID}, ObjectID, UUID
+	 */
+	private static boolean isVariable(String uri, int start, int end) {
+		if(start == end) return false;
+		boolean digit = false, alpha = false;
+		for(int i = start; i < end; i++) {
+			char c = uri.charAt(i);
+			if(c >= '0' && c <= '9') digit = true;
+			else if(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '-' || c == '_') alpha = true;
+			else return false;
+		}
+		return digit && (!alpha || end - start >= 8);
+	}
+	
+	/**
+	 * container may call back on any thread, so context is attached during callback
+	 */
+	private class TraceListener implements AsyncListener {
+		
+		private final TraceContext context;
+		
+		private final long start;
+		
+		TraceListener(TraceContext context, long start) {
+			this.context = context;
+			this.start = start;
+		}
+
+		public void onComplete(AsyncEvent event) throws IOException {
+			TraceContext previous = TraceContext.attach(context);
+			try {
+				record(event.getSuppliedRequest(), context, System.nanoTime() - start);
+			} finally {
+				TraceContext.detach(previous);
+			}
+		}
+
+		public void onTimeout(AsyncEvent event) throws IOException {
+			TraceContext previous = TraceContext.attach(context);
+			try {
+				log.warn("async request timeout after {} ms", (System.nanoTime() - start) / 1000000);
+			} finally {
+				TraceContext.detach(previous);
+			}
+		}
+
+		public void onError(AsyncEvent event) throws IOException {
+			TraceContext previous = TraceContext.attach(context);
+			try {
+				log.warn("async request failed", event.getThrowable());
+			} finally {
+				TraceContext.detach(previous);
+			}
+		}
+
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			event.getAsyncContext().addListener(this);
+		}
+	}
+	
 	public void destroy() {
 		tid = null;
+		rid = null;
 		if(log.isDebugEnabled()) log.debug("MDC filter destroyed");
 	}
 
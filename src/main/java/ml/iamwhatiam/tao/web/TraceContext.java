@@ -0,0 +1,258 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.web;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.MDC;
+
+import ml.iamwhatiam.tao.util.ID;
+
+/**
+ * Dapper like span context: trace id is shared by all spans of one request, rpc id locates a span in call tree.
+ * Root span is "0", the n-th call issued by span "0.1" is "0.1.n".
+ * <p>
+ * Rpc id is kept as chars, child id is built by one array copy plus digits written in place,
+ * string form is created only when asked, and cached.
+ * Context of current thread is bound by {@link MdcFilter}, callers derive {@link #child()} before each outgoing call,
+ * and pass {@link #getTraceId()} and child {@link #getRpcId()} in headers.
+ * <p>
+ * Work handed off to other threads keeps context by {@link #wrap(Runnable)}, {@link #wrap(Callable)} or {@link TraceExecutor}:
+ * context captured on submit is attached to the worker thread and MDC while task runs, then previous one restored.
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class TraceContext {
+	
+	/**
+	 * longest trace id or rpc id accepted from caller, longer one is treated as absent
+	 */
+	static final int MAX_LENGTH = 128;
+	
+	private static final char[] ROOT = {'0'};
+	
+	private static final ThreadLocal<TraceContext> holder = new ThreadLocal<TraceContext>();
+	
+	/**
+	 * MDC keys, configured by {@link MdcFilter}
+	 */
+	static volatile String traceKey = "tid";
+	
+	static volatile String rpcKey = "rid";
+	
+	private final String traceId;
+	
+	private final char[] rpcId;
+	
+	private final AtomicInteger children = new AtomicInteger();
+	
+	private String rpcIdString;
+	
+	private TraceContext(String traceId, char[] rpcId) {
+		this.traceId = traceId;
+		this.rpcId = rpcId;
+	}
+	
+	/**
+	 * start a new trace
+	 */
+	public static TraceContext root() {
+		return new TraceContext(ID.getInstance().next(), ROOT);
+	}
+	
+	/**
+	 * join trace propagated by caller, start a new one if trace id absent or malformed
+	 * @param traceId trace id of caller
+	 * @param rpcId rpc id assigned by caller
+	 */
+	public static TraceContext join(String traceId, String rpcId) {
+		if(!isTraceId(traceId)) return root();
+		if(!isRpcId(rpcId)) return new TraceContext(traceId, ROOT);
+		TraceContext context = new TraceContext(traceId, rpcId.toCharArray());
+		context.rpcIdString = rpcId;
+		return context;
+	}
+	
+	/**
+	 * @return context bound to current thread, or null
+	 */
+	public static TraceContext current() {
+		return holder.get();
+	}
+	
+	/**
+	 * bind context to current thread
+	 * @return previous bound context
+	 */
+	public static TraceContext bind(TraceContext context) {
+		TraceContext previous = holder.get();
+		if(context == null) holder.remove();
+		else holder.set(context);
+		return previous;
+	}
+	
+	public static void clear() {
+		holder.remove();
+	}
+	
+	/**
+	 * bind context to current thread and put ids into MDC
+	 * @return previous bound context, which should be passed to {@link #detach(TraceContext)}
+	 */
+	public static TraceContext attach(TraceContext context) {
+		TraceContext previous = holder.get();
+		holder.set(context);
+		MDC.put(traceKey, context.traceId);
+		MDC.put(rpcKey, context.getRpcId());
+		return previous;
+	}
+	
+	/**
+	 * restore thread binding and MDC of previous context
+	 * @param previous returned by {@link #attach(TraceContext)}
+	 */
+	public static void detach(TraceContext previous) {
+		if(previous == null) {
+			holder.remove();
+			MDC.remove(traceKey);
+			MDC.remove(rpcKey);
+		} else attach(previous);
+	}
+	
+	/**
+	 * @return task running with context of current thread, or task itself if no context bound
+	 */
+	public static Runnable wrap(final Runnable task) {
+		final TraceContext context = holder.get();
+		if(context == null || task == null) return task;
+		return new Runnable() {
+			public void run() {
+				TraceContext previous = attach(context);
+				try {
+					task.run();
+				} finally {
+					detach(previous);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * @return task running with context of current thread, or task itself if no context bound
+	 */
+	public static <V> Callable<V> wrap(final Callable<V> task) {
+		final TraceContext context = holder.get();
+		if(context == null || task == null) return task;
+		return new Callable<V>() {
+			public V call() throws Exception {
+				TraceContext previous = attach(context);
+				try {
+					return task.call();
+				} finally {
+					detach(previous);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * derive context for next outgoing call, safe to call from multiple threads
+	 */
+	public TraceContext child() {
+		int seq = children.incrementAndGet();
+		int digits = stringSize(seq);
+		char[] child = new char[rpcId.length + 1 + digits];
+		System.arraycopy(rpcId, 0, child, 0, rpcId.length);
+		child[rpcId.length] = '.';
+		for(int i = child.length - 1; seq > 0; seq /= 10)
+			child[i--] = (char) ('0' + seq % 10);
+		return new TraceContext(traceId, child);
+	}
+	
+	public String getTraceId() {
+		return traceId;
+	}
+	
+	public String getRpcId() {
+		String s = rpcIdString;
+		if(s == null) rpcIdString = s = new String(rpcId);
+		return s;
+	}
+	
+	/**
+	 * @return depth of span in call tree, root is 0
+	 */
+	public int getDepth() {
+		int depth = 0;
+		for(char c : rpcId)
+			if(c == '.') depth++;
+		return depth;
+	}
+	
+	@Override
+	public String toString() {
+		return traceId + ":" + getRpcId();
+	}
+	
+	private static int stringSize(int x) {
+		int size = 1;
+		while(x >= 10) {
+			x /= 10;
+			size++;
+		}
+		return size;
+	}
+	
+	/**
+	 * letters, digits, '-' and '_' only, so it is safe to log and echo in header
+	 */
+	static boolean isTraceId(String s) {
+		if(s == null || s.length() == 0 || s.length() > MAX_LENGTH) return false;
+		for(int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if(!(c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '-' || c == '_')) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * digits separated by single '.'
+	 */
+	static boolean isRpcId(String s) {
+		if(s == null || s.length() == 0 || s.length() > MAX_LENGTH) return false;
+		boolean digit = false;
+		for(int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if(c >= '0' && c <= '9') digit = true;
+			else if(c == '.' && digit) digit = false;
+			else return false;
+		}
+		return digit;
+	}
+
+}
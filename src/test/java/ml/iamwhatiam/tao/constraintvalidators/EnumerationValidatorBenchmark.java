@@ -0,0 +1,65 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.constraintvalidators;
+
+import java.util.concurrent.TimeUnit;
+
+import ml.iamwhatiam.tao.domain.Ter;
+
+/**
+ * EnumerationValidator benchmark, not run by unit test, run main manually
+ * 
+ * @author iMinusMinus
+ * @version 0.0.1
+ *
+ */
+public class EnumerationValidatorBenchmark {
+	
+	public static void main(String[] args) throws Exception {
+		isValid();
+	}
+	
+	/**
+	 * compare with scanning cloned constants every call
+	 */
+	static void isValid() throws Exception {
+		EnumerationValidator validator = EnumerationValidatorTest.validator("exact");
+		String[] inputs = {"NEGATIVE", "NEUTRAL", "POSITIVE", "ABC"};
+		int rounds = 1000000;
+		for(int warmup = 0; warmup < 5; warmup++) {
+			long start = System.nanoTime();
+			int valid = 0;
+			for(int i = 0; i < rounds; i++)
+				if(EnumerationValidatorTest.scan(Ter.class, inputs[i & 3])) valid++;
+			long scan = System.nanoTime() - start;
+			start = System.nanoTime();
+			for(int i = 0; i < rounds; i++)
+				if(validator.isValid(inputs[i & 3], null)) valid--;
+			long lookup = System.nanoTime() - start;
+			if(valid != 0) throw new IllegalStateException("lookup disagrees with scan");
+			System.out.println("scan: " + TimeUnit.NANOSECONDS.toMillis(scan) + "ms, lookup: " + TimeUnit.NANOSECONDS.toMillis(lookup) + "ms");
+		}
+	}
+
+}
@@ -70,5 +70,55 @@ public class EnumerationValidatorTest {
 		x.setTer("POSITIVE");
 		Assert.assertEquals(0, validator.validate(x).size());
 	}
+	
+	@Test
+	public void testIsValid() throws Exception {
+		EnumerationValidator exact = validator("exact");
+		Assert.assertTrue(exact.isValid("NEUTRAL", null));
+		Assert.assertFalse(exact.isValid("neutral", null));
+		Assert.assertFalse(exact.isValid("NEUTRAL,POSITIVE", null));
+		Assert.assertFalse(exact.isValid(null, null));
+		EnumerationValidator set = validator("set");
+		Assert.assertTrue(set.isValid("neutral", null));
+		Assert.assertTrue(set.isValid("Negative,POSITIVE", null));
+		Assert.assertTrue(set.isValid("", null));
+		Assert.assertFalse(set.isValid("NEUTRAL,", null));
+		Assert.assertFalse(set.isValid("NEUTRAL,,POSITIVE", null));
+		Assert.assertFalse(set.isValid("NEUTRAL,ZERO", null));
+	}
+	
+	/**
+	 * lookup must agree with scanning cloned constants every call
+	 */
+	@Test
+	public void testIsValidLookup() throws Exception {
+		EnumerationValidator validator = validator("exact");
+		String[] inputs = {"NEGATIVE", "NEUTRAL", "POSITIVE", "ABC"};
+		for(String input : inputs)
+			Assert.assertEquals(input, scan(Ter.class, input), validator.isValid(input, null));
+	}
+	
+	static boolean scan(Class<? extends Enum<?>> enumType, String name) {
+		for(Enum<?> constant : enumType.getEnumConstants())
+			if(constant.name().equals(name))
+				return true;
+		return false;
+	}
+	
+	static EnumerationValidator validator(String field) throws Exception {
+		EnumerationValidator validator = new EnumerationValidator();
+		validator.initialize(Annotated.class.getDeclaredField(field).getAnnotation(Enumeration.class));
+		return validator;
+	}
+	
+	static class Annotated {
+		
+		@Enumeration(Ter.class)
+		String exact;
+		
+		@Enumeration(value = Ter.class, ignoreCase = true, multiple = true)
+		String set;
+		
+	}
 
 }
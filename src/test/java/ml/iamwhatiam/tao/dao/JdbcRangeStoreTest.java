@@ -0,0 +1,181 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JDBC objects are proxies of a table in memory
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class JdbcRangeStoreTest {
+	
+	@Test
+	public void testReserve() {
+		Database db = new Database();
+		JdbcRangeStore store = new JdbcRangeStore(db.dataSource());
+		Assert.assertEquals(1, store.reserve("a", 10));
+		Assert.assertEquals(11, store.reserve("a", 10));
+		store.setInitialValue(1000);
+		Assert.assertEquals(1000, store.reserve("b", 5));
+		Assert.assertEquals(Long.valueOf(21), db.rows.get("a"));
+		Assert.assertEquals(Long.valueOf(1005), db.rows.get("b"));
+		Assert.assertFalse(db.autoCommit);
+		Assert.assertEquals(3, db.closed);
+	}
+	
+	@Test
+	public void testLostRace() {
+		Database db = new Database();
+		db.raceOnInsert = true;
+		JdbcRangeStore store = new JdbcRangeStore(db.dataSource());
+		Assert.assertEquals(100, store.reserve("a", 10));
+		Assert.assertEquals(Long.valueOf(110), db.rows.get("a"));
+	}
+	
+	@Test
+	public void testInsertFailed() {
+		Database db = new Database();
+		db.insertError = new SQLException("table not found", "42S02");
+		JdbcRangeStore store = new JdbcRangeStore(db.dataSource());
+		try {
+			store.reserve("a", 10);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			Assert.assertSame(db.insertError, e.getCause());
+		}
+		Assert.assertFalse(db.autoCommit);
+		Assert.assertEquals(1, db.closed);
+	}
+	
+	/**
+	 * table of name and next value, connection is not in auto-commit mode initially
+	 */
+	private static class Database implements InvocationHandler {
+		
+		final Map<String, Long> rows = new HashMap<String, Long>();
+		
+		boolean autoCommit;
+		
+		int closed;
+		
+		/**
+		 * row is inserted by others just before insert
+		 */
+		boolean raceOnInsert;
+		
+		SQLException insertError;
+		
+		DataSource dataSource() {
+			return proxy(DataSource.class, this);
+		}
+		
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if(name.equals("getConnection")) return proxy(Connection.class, this);
+			if(name.equals("getAutoCommit")) return autoCommit;
+			if(name.equals("setAutoCommit")) autoCommit = (Boolean) args[0];
+			else if(name.equals("close")) closed++;
+			else if(name.equals("prepareStatement")) return proxy(PreparedStatement.class, new Statement((String) args[0]));
+			else throw new UnsupportedOperationException(name);
+			return null;
+		}
+		
+		private class Statement implements InvocationHandler {
+			
+			private final String sql;
+			
+			private final Object[] params = new Object[4];
+			
+			Statement(String sql) {
+				this.sql = sql;
+			}
+			
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				String name = method.getName();
+				if(name.equals("setString") || name.equals("setLong")) params[(Integer) args[0]] = args[1];
+				else if(name.equals("executeQuery")) return result(rows.get(params[1]));
+				else if(name.equals("executeUpdate")) return execute();
+				else if(!name.equals("close")) throw new UnsupportedOperationException(name);
+				return null;
+			}
+			
+			private int execute() throws SQLException {
+				if(!autoCommit) throw new SQLException("not in auto-commit mode");
+				if(sql.startsWith("UPDATE")) {
+					if(!params[3].equals(rows.get(params[2]))) return 0;
+					rows.put((String) params[2], (Long) params[1]);
+					return 1;
+				}
+				if(insertError != null) throw insertError;
+				if(raceOnInsert) {
+					raceOnInsert = false;
+					rows.put((String) params[1], 100L);
+				}
+				if(rows.containsKey(params[1])) throw new SQLException("duplicate key", "23505");
+				rows.put((String) params[1], (Long) params[2]);
+				return 1;
+			}
+		}
+		
+		private ResultSet result(final Long value) {
+			return proxy(ResultSet.class, new InvocationHandler() {
+				private boolean read;
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					String name = method.getName();
+					if(name.equals("next")) {
+						boolean next = !read && value != null;
+						read = true;
+						return next;
+					}
+					if(name.equals("getLong")) return value;
+					if(!name.equals("close")) throw new UnsupportedOperationException(name);
+					return null;
+				}
+			});
+		}
+		
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(JdbcRangeStoreTest.class.getClassLoader(), new Class<?>[] {type}, handler));
+		}
+	}
+
+}
@@ -23,9 +23,15 @@
  */
 package ml.iamwhatiam.tao.ddd;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -64,4 +70,49 @@ public class CodeGenTest {
 		CodeGen.main(args);
 	}
 
+	/**
+	 * column of inherited property and column named like lookup table of codec
+	 */
+	@Test
+	public void testJsonCodec() throws Exception {
+		File target = File.createTempFile("codegen", "");
+		target.delete();
+		File sql = new File(target, "article.sql");
+		sql.getParentFile().mkdirs();
+		StringBuilder sb = new StringBuilder();
+		sb.append("CREATE TABLE `article` (").append("\n");
+		sb.append("	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,").append("\n");
+		sb.append("	`names` VARCHAR(64) NULL DEFAULT NULL,").append("\n");
+		sb.append("	`created_by` VARCHAR(64) NULL DEFAULT NULL,").append("\n");
+		sb.append("	PRIMARY KEY (`id`)").append("\n");
+		sb.append(");").append("\n");
+		FileOutputStream fos = new FileOutputStream(sql);
+		try {
+			fos.write(sb.toString().getBytes("UTF-8"));
+		} finally {
+			fos.close();
+		}
+		try {
+			CodeGen.main(new String[] {"-d", "MySQL", "-n", "codec", "-t", target.getPath(), sql.getPath()});
+			File domain = new File(target, "codec" + File.separator + "domain");
+			File classes = new File(target, "classes");
+			classes.mkdirs();
+			JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+			ByteArrayOutputStream err = new ByteArrayOutputStream();
+			int status = javac.run(null, null, err, "-nowarn", "-d", classes.getPath(), "-cp", System.getProperty("java.class.path"), 
+					new File(domain, "ArticleDomain.java").getPath(), new File(domain, "ArticleDomainJsonCodec.java").getPath());
+			Assert.assertEquals(err.toString(), 0, status);
+		} finally {
+			delete(target);
+		}
+	}
+	
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if(children != null)
+			for(File child : children)
+				delete(child);
+		file.delete();
+	}
+
 }
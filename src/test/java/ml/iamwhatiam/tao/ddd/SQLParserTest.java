@@ -27,6 +27,9 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -167,6 +170,355 @@ public class SQLParserTest {
 		Assert.assertEquals(3, table.getIndexes().size());
 	}
 	
+	@Test
+	public void testParseAll() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		sb.append("-- schema dump; not a statement").append("\n");
+		sb.append("/* language; film */").append("\n");
+		sb.append("CREATE TABLE `film` (").append("\n");
+		sb.append("	`film_id` SMALLINT(5) UNSIGNED NOT NULL AUTO_INCREMENT,").append("\n");
+		sb.append("	`title` VARCHAR(255) NOT NULL DEFAULT 'a;b',").append("\n");
+		sb.append("	`language_id` TINYINT(3) UNSIGNED NOT NULL,").append("\n");
+		sb.append("	PRIMARY KEY (`film_id`),").append("\n");
+		sb.append("	CONSTRAINT `fk_film_language` FOREIGN KEY (`language_id`) REFERENCES `language` (`language_id`) ON UPDATE CASCADE").append("\n");
+		sb.append(")").append("\n");
+		sb.append("COMMENT='films; and more'").append("\n");
+		sb.append(";").append("\n");
+		sb.append("INSERT INTO `film` VALUES (1, 'x;y', 1);").append("\n");
+		sb.append("CREATE INDEX `idx_title` ON `film` (`title`);").append("\n");
+		sb.append("CREATE TABLE `language` (").append("\n");
+		sb.append("	`language_id` TINYINT(3) UNSIGNED NOT NULL AUTO_INCREMENT,").append("\n");
+		sb.append("	`name` CHAR(20) NOT NULL,").append("\n");
+		sb.append("	PRIMARY KEY (`language_id`)").append("\n");
+		sb.append(");").append("\n");
+		Schema schema = new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertEquals(2, schema.getTables().size());
+		Table film = schema.getTable("FILM");
+		Assert.assertEquals(3, film.getColumns().size());
+		Assert.assertEquals("'a;b'", film.getColumns().get(1).getDefaultValue());
+		Assert.assertEquals(1, film.getIndexes().size());
+		Assert.assertEquals("films; and more", film.getComment());
+		Table language = schema.getTables().get(1);
+		Assert.assertEquals("language", language.getName());
+		Assert.assertSame(language.getColumns().get(0), film.getFks().get(0).getReferences()[0]);
+		
+		Schema oracle = new SQLParser(Dialect.ORACLE).parseAll(new FileInputStream(new File("src/test/resources/oracle.sql")));
+		Assert.assertEquals(1, oracle.getTables().size());
+		Table emp = oracle.getTable("EMP");
+		Assert.assertEquals(8, emp.getColumns().size());
+		Assert.assertNotNull(emp.getPk());
+		Assert.assertEquals("DEPT", emp.getFks().get(0).getReferences()[0].getTable().getName());
+	}
+	
+	@Test
+	public void testLexer() {
+		char[] script = "create /* c; */ TABLE `a``b`.x(-- line\n id NUMBER(4,2) default 'it''s', Index 1.5e3);".toCharArray();
+		SQLLexer lexer = new SQLLexer(script, 0, script.length, Dialect.MYSQL);
+		Assert.assertEquals(SQLLexer.Type.KEYWORD, lexer.next());
+		Assert.assertTrue(lexer.is(SQLLexer.Keyword.CREATE));
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.KEYWORD && lexer.is(SQLLexer.Keyword.TABLE));
+		Assert.assertEquals(SQLLexer.Type.QUOTED_IDENTIFIER, lexer.next());
+		Assert.assertEquals("`a``b`", lexer.text());
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.PUNCTUATION && lexer.is('.'));
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.IDENTIFIER && lexer.is("X"));
+		lexer.next();
+		Assert.assertEquals(SQLLexer.Type.IDENTIFIER, lexer.next());
+		Assert.assertEquals(SQLLexer.Type.IDENTIFIER, lexer.next());
+		lexer.next();
+		Assert.assertEquals(SQLLexer.Type.NUMBER, lexer.next());
+		lexer.next();
+		lexer.next();
+		lexer.next();
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.KEYWORD && lexer.is(SQLLexer.Keyword.DEFAULT));
+		Assert.assertEquals(SQLLexer.Type.STRING, lexer.next());
+		Assert.assertEquals("it's", lexer.string());
+		lexer.next();
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.KEYWORD && lexer.is(SQLLexer.Keyword.INDEX));
+		Assert.assertEquals(SQLLexer.Type.NUMBER, lexer.next());
+		Assert.assertEquals("1.5e3", lexer.text());
+		lexer.next();
+		Assert.assertTrue(lexer.next() == SQLLexer.Type.PUNCTUATION && lexer.is(';'));
+		Assert.assertEquals(SQLLexer.Type.END, lexer.next());
+		for(SQLLexer.Keyword keyword : SQLLexer.Keyword.values()) {
+			char[] word = keyword.name().toLowerCase().toCharArray();
+			lexer = new SQLLexer(word, 0, word.length, Dialect.POSTGRES);
+			lexer.next();
+			Assert.assertSame(keyword, lexer.keyword());
+		}
+		char[] escaped = "E'it\\'s' 'a\\b'".toCharArray();
+		lexer = new SQLLexer(escaped, 0, escaped.length, Dialect.POSTGRES);
+		Assert.assertEquals(SQLLexer.Type.STRING, lexer.next());
+		Assert.assertEquals("it's", lexer.string());
+		Assert.assertEquals(SQLLexer.Type.STRING, lexer.next());
+		Assert.assertEquals("a\\b", lexer.string());
+		char[] bad = "create table x (a varchar(10) default 'x)".toCharArray();
+		lexer = new SQLLexer(bad, 0, bad.length, Dialect.ORACLE);
+		try {
+			while(lexer.next() != SQLLexer.Type.END);
+			Assert.fail("string not closed");
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getMessage().startsWith("syntax error 1:39"));
+		}
+		//window of stream: token which may go on after window is not returned
+		for(String partial : new String[] {"x    TAB", "x    1e", "x    'it''", "x    /* c", "x    -- c", "x    $$ c", "x    "}) {
+			char[] window = partial.toCharArray();
+			lexer = new SQLLexer(window, 0, window.length, Dialect.POSTGRES, 1, true);
+			Assert.assertEquals(SQLLexer.Type.IDENTIFIER, lexer.next());
+			try {
+				lexer.next();
+				Assert.fail(partial);
+			} catch (SQLLexer.Underflow e) {
+				Assert.assertEquals(partial, 5, lexer.skipped());
+			}
+		}
+	}
+	
+	@Test
+	public void testColumnDefinition() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CREATE TABLE IF NOT EXISTS `t` (").append("\n");
+		sb.append("	`id` BIGINT(20) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY COMMENT 'row id, unique',").append("\n");
+		sb.append("	`code` VARCHAR(32) CHARACTER SET utf8 NOT NULL UNIQUE,").append("\n");
+		sb.append("	`amount` DECIMAL(10,2) NOT NULL DEFAULT -1.5,").append("\n");
+		sb.append("	`created` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP(),").append("\n");
+		sb.append("	KEY `idx_code` USING BTREE (`code`(8), `amount` DESC),").append("\n");
+		sb.append("	CHECK (`amount` > 0)").append("\n");
+		sb.append(") ENGINE=InnoDB COMMENT 'test table';").append("\n");
+		sb.append("ALTER TABLE `t` ADD COLUMN `memo` TEXT NULL, ADD INDEX `idx_memo` (`memo`);").append("\n");
+		Table table = new SQLParser(Dialect.MYSQL).parse(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertEquals(5, table.getColumns().size());
+		Assert.assertEquals("row id, unique", table.getColumns().get(0).getComment());
+		Assert.assertTrue(table.getColumns().get(0).isAutoIncrement());
+		Assert.assertSame(table.getColumns().get(0), table.getPk().getColumns()[0]);
+		Assert.assertSame(table.getColumns().get(1), table.getUks().get(0).getColumns()[0]);
+		Assert.assertEquals("-1.5", table.getColumns().get(2).getDefaultValue());
+		Assert.assertEquals("CURRENT_TIMESTAMP()", table.getColumns().get(3).getDefaultValue());
+		Assert.assertEquals("BTREE", table.getIndexes().get(0).getAlgorithm());
+		Assert.assertEquals(2, table.getIndexes().get(0).getColumns().length);
+		Assert.assertEquals("`amount` > 0", table.getChecks().get(0).getSearchCondition());
+		Assert.assertEquals("test table", table.getComment());
+		Assert.assertEquals("memo", table.getColumns().get(4).getName());
+		Assert.assertEquals(2, table.getIndexes().size());
+		sb.setLength(0);
+		sb.append("CREATE TABLE t (a INTEGER CHECK (a > 0), b TEXT DEFAULT E'it\\'s');").append("\n");
+		table = new SQLParser(Dialect.POSTGRES).parse(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertSame(table.getColumns().get(0), table.getChecks().get(0).getColumns()[0]);
+		Assert.assertEquals("a > 0", table.getChecks().get(0).getSearchCondition());
+		Assert.assertEquals(2, table.getColumns().size());
+	}
+	
+	@Test
+	public void testParseAllDump() {
+		int tables = 2000;
+		Schema schema = new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(dump(tables)));
+		Assert.assertEquals(tables, schema.getTables().size());
+		Assert.assertSame(schema.getTables().get(0).getColumns().get(0), schema.getTable("t" + (tables - 1)).getFks().get(0).getReferences()[0]);
+	}
+	
+	@Test
+	public void testParseAllParallel() throws Exception {
+		int tables = 4000;
+		byte[] script = dump(tables);
+		int cores = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(cores);
+		try {
+			Schema serial = new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(script), "UTF-8");
+			Schema parallel = new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(script), "UTF-8", executor);
+			Assert.assertEquals(serial.getTables().size(), parallel.getTables().size());
+			for(int i = 0; i < tables; i++) {
+				Table table = parallel.getTables().get(i);
+				Assert.assertEquals(serial.getTables().get(i).getName(), table.getName());
+				Assert.assertEquals(2, table.getIndexes().size());
+				Assert.assertSame(parallel.getTables().get(0).getColumns().get(0), table.getFks().get(0).getReferences()[0]);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testParseFile() throws Exception {
+		Table emp = new SQLParser(Dialect.ORACLE).parse(new File("src/test/resources/oracle.sql"), "UTF-8");
+		Assert.assertEquals(8, emp.getColumns().size());
+		Assert.assertNotNull(emp.getPk());
+		StringBuilder sb = new StringBuilder();
+		sb.append("CREATE TABLE `用户` (").append("\n");
+		sb.append("	`id` BIGINT(20) NOT NULL COMMENT '编号',").append("\n");
+		sb.append("	名称 VARCHAR(64) NOT NULL DEFAULT '无名' COMMENT 'it''s 名称',").append("\n");
+		sb.append("	PRIMARY KEY (`id`)").append("\n");
+		sb.append(") COMMENT='用户; 表';").append("\n");
+		File file = File.createTempFile("ddl", ".sql");
+		file.deleteOnExit();
+		String[] charsets = {"UTF-8", "GBK"};
+		for(String charset : charsets) {
+			FileOutputStream fos = new FileOutputStream(file);
+			try {
+				if("UTF-8".equals(charset))
+					fos.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+				fos.write(sb.toString().getBytes(charset));
+			} finally {
+				fos.close();
+			}
+			Schema schema = new SQLParser(Dialect.MYSQL).parseAll(file, charset);
+			Table table = schema.getTable("用户");
+			Assert.assertEquals("用户; 表", table.getComment());
+			Assert.assertEquals("编号", table.getColumns().get(0).getComment());
+			Assert.assertEquals("名称", table.getColumns().get(1).getName());
+			Assert.assertEquals("'无名'", table.getColumns().get(1).getDefaultValue());
+			Assert.assertEquals("it's 名称", table.getColumns().get(1).getComment());
+		}
+		byte[] script = dump(2000);
+		FileOutputStream fos = new FileOutputStream(file);
+		try {
+			fos.write(script);
+		} finally {
+			fos.close();
+		}
+		Schema stream = new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(script));
+		Schema mapped = new SQLParser(Dialect.MYSQL).parseAll(file, "UTF-8");
+		Assert.assertEquals(stream.getTables().size(), mapped.getTables().size());
+	}
+	
+	/**
+	 * tables referencing the first one, index of each table is created before it
+	 */
+	@Test
+	public void testListener() {
+		int tables = 1000;
+		final int[] counts = new int[5];
+		SQLParser.Listener listener = new SQLParser.Listener() {
+			private Table current;
+			public void onTableStart(Table table) {
+				Assert.assertNull(current);
+				current = table;
+				counts[0]++;
+			}
+			public void onColumn(Table table, Table.Column column) {
+				Assert.assertSame(current, table);
+				counts[1]++;
+			}
+			public void onConstraint(Table table, Table.Constraint constraint) {
+				counts[2]++;
+			}
+			public void onComment(Table table, Table.Column column, String comment) {
+				Assert.assertSame(current, table);
+				counts[3]++;
+			}
+			public void onTableEnd(Table table) {
+				Assert.assertSame(current, table);
+				Assert.assertEquals(2, table.getIndexes().size() + table.getFks().size());
+				current = null;
+				counts[4]++;
+			}
+		};
+		new SQLParser(Dialect.MYSQL).parse(new ByteArrayInputStream(dump(tables)), "UTF-8", listener);
+		Assert.assertArrayEquals(new int[] {tables, 4 * tables, 4 * tables, 2 * tables, tables}, counts);
+		//statement longer than window
+		StringBuilder sb = new StringBuilder("CREATE TABLE wide (\n	id BIGINT NOT NULL");
+		for(int i = 0; i < 1000; i++)
+			sb.append(",\n	c").append(i).append(" VARCHAR(32) COMMENT '/* column ").append(i).append(" */'");
+		sb.append(");\n");
+		Table wide = new SQLParser(Dialect.MYSQL).parse(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertEquals(1001, wide.getColumns().size());
+		final int[] columns = new int[1];
+		new SQLParser(Dialect.MYSQL).parse(new ByteArrayInputStream(sb.toString().getBytes()), "UTF-8", new SchemaBuilder(Dialect.MYSQL) {
+			@Override
+			public void onColumn(Table table, Table.Column column) {
+				columns[0]++;
+			}
+		});
+		Assert.assertEquals(1001, columns[0]);// events of statement across windows are not repeated
+		Assert.assertEquals("/* column 999 */", wide.getColumns().get(1000).getComment());
+		//blanks and comments longer than window
+		sb = new StringBuilder("CREATE TABLE a (id INT);");
+		for(int i = 0; i < 100000; i++)
+			sb.append(' ');
+		sb.append("\n-- ");
+		for(int i = 0; i < 20000; i++)
+			sb.append("x;");
+		sb.append("\n/* ");
+		for(int i = 0; i < 20000; i++)
+			sb.append("y;");
+		sb.append(" */\nCREATE TABLE b (id INT);");
+		Assert.assertEquals(2, new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(sb.toString().getBytes())).getTables().size());
+		//error line of later window
+		sb = new StringBuilder(new String(dump(100))).append("CREATE TABLE bad (id INT,,);");
+		try {
+			new SQLParser(Dialect.MYSQL).parseAll(new ByteArrayInputStream(sb.toString().getBytes()));
+			Assert.fail();
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("syntax error 1201:"));
+		}
+	}
+	
+	@Test
+	public void testLateStatement() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("ALTER TABLE t ADD COLUMN c INTEGER;").append("\n");
+		sb.append("ALTER TABLE t ADD CONSTRAINT uk_c UNIQUE (c);").append("\n");
+		sb.append("COMMENT ON COLUMN t.c IS 'added';").append("\n");
+		sb.append("COMMENT ON TABLE t IS 'late';").append("\n");
+		sb.append("CREATE INDEX idx_id ON t (id);").append("\n");
+		sb.append("CREATE TABLE t (id BIGINT PRIMARY KEY);").append("\n");
+		sb.append("ALTER TABLE missing ADD COLUMN x INTEGER;").append("\n");
+		Schema schema = new SQLParser(Dialect.POSTGRES).parseAll(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertEquals(1, schema.getTables().size());
+		Table t = schema.getTable("t");
+		Assert.assertEquals("late", t.getComment());
+		Assert.assertEquals(2, t.getColumns().size());
+		Table.Column c = t.getColumns().get(1);
+		Assert.assertSame(t, c.getTable());
+		Assert.assertEquals("added", c.getComment());
+		Assert.assertSame(c, t.getUks().get(0).getColumns()[0]);
+		Assert.assertSame(t.getColumns().get(0), t.getIndexes().get(0).getColumns()[0]);
+		Assert.assertSame(t.getColumns().get(0), t.getPk().getColumns()[0]);
+	}
+	
+	@Test
+	public void testQualifiedTable() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CREATE TABLE a.users (id BIGINT PRIMARY KEY, name TEXT);").append("\n");
+		sb.append("CREATE TABLE b.users (id BIGINT PRIMARY KEY, login TEXT);").append("\n");
+		sb.append("COMMENT ON TABLE a.users IS 'first';").append("\n");
+		sb.append("COMMENT ON COLUMN b.users.login IS 'second';").append("\n");
+		sb.append("ALTER TABLE b.users ADD COLUMN memo TEXT;").append("\n");
+		sb.append("CREATE TABLE a.orders (id BIGINT, user_id BIGINT, CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES b.users (id));").append("\n");
+		sb.append("CREATE TABLE items (id BIGINT, order_id BIGINT, CONSTRAINT fk_order FOREIGN KEY (order_id) REFERENCES orders (id));").append("\n");
+		Schema schema = new SQLParser(Dialect.POSTGRES).parseAll(new ByteArrayInputStream(sb.toString().getBytes()));
+		Assert.assertEquals(4, schema.getTables().size());
+		Assert.assertNull(schema.getTable("users"));
+		Table a = schema.getTable(null, "a", "users");
+		Table b = schema.getTable(null, "b", "users");
+		Assert.assertEquals("first", a.getComment());
+		Assert.assertNull(b.getComment());
+		Assert.assertEquals(2, a.getColumns().size());
+		Assert.assertEquals(3, b.getColumns().size());
+		Assert.assertEquals("second", b.getColumns().get(1).getComment());
+		Table orders = schema.getTable(null, "a", "orders");
+		Assert.assertSame(orders, schema.getTable("orders"));
+		Assert.assertSame(b.getColumns().get(0), orders.getFks().get(0).getReferences()[0]);
+		Assert.assertSame(orders.getColumns().get(0), schema.getTable("items").getFks().get(0).getReferences()[0]);
+	}
+	
+	private static byte[] dump(int tables) {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < tables; i++) {
+			sb.append("-- table ").append(i).append("\n");
+			sb.append("CREATE INDEX `idx_parent` ON `t").append(i).append("` (`parent_id`);").append("\n");
+			sb.append("CREATE TABLE `t").append(i).append("` (").append("\n");
+			sb.append("	`id` BIGINT(20) UNSIGNED NOT NULL AUTO_INCREMENT,").append("\n");
+			sb.append("	`name` VARCHAR(64) NOT NULL DEFAULT '' COMMENT 'name; of row',").append("\n");
+			sb.append("	`parent_id` BIGINT(20) UNSIGNED NULL DEFAULT NULL,").append("\n");
+			sb.append("	`created` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,").append("\n");
+			sb.append("	PRIMARY KEY (`id`),").append("\n");
+			sb.append("	INDEX `idx_name` (`name`),").append("\n");
+			sb.append("	CONSTRAINT `fk_").append(i).append("` FOREIGN KEY (`parent_id`) REFERENCES `t0` (`id`)").append("\n");
+			sb.append(") ENGINE=InnoDB COMMENT='table ").append(i).append("';").append("\n");
+			sb.append("INSERT INTO `t").append(i).append("` VALUES (1, 'a;b', NULL, NOW());").append("\n");
+		}
+		return sb.toString().getBytes();
+	}
+	
 	@Test
 	public void testEnum() {
 		Table.Column.OracleDataType type1 = new Table.Column.OracleDataType("NUMBER");
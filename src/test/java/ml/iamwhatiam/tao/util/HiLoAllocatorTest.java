@@ -0,0 +1,117 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class HiLoAllocatorTest {
+	
+	@Test
+	public void testUnique() throws InterruptedException {
+		final CountingStore store = new CountingStore();
+		final HiLoAllocator allocator = new HiLoAllocator(store, "test", 100);
+		final Set<Long> ids = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+		int threads = 4;
+		final int perThread = 10000;
+		final CountDownLatch done = new CountDownLatch(threads);
+		for(int i = 0; i < threads; i++) {
+			new Thread(new Runnable() {
+				public void run() {
+					for(int j = 0; j < perThread; j++)
+						ids.add(allocator.nextId());
+					done.countDown();
+				}
+			}).start();
+		}
+		done.await();
+		Assert.assertEquals(threads * perThread, ids.size());
+		for(Long id : ids) Assert.assertTrue(id > 0);
+		Assert.assertTrue(store.reservations.get() <= threads * perThread / 100 + 2);
+	}
+	
+	@Test
+	public void testPrefetch() {
+		CountingStore store = new CountingStore();
+		final AtomicInteger submitted = new AtomicInteger();
+		Executor caller = new Executor() {
+			public void execute(Runnable command) {
+				submitted.incrementAndGet();
+				command.run();
+			}
+		};
+		HiLoAllocator allocator = new HiLoAllocator(store, "test", 10, 3, caller);
+		Assert.assertEquals(1, store.reservations.get());
+		for(int i = 1; i <= 7; i++)
+			Assert.assertEquals(i, allocator.nextId());
+		Assert.assertEquals(1, store.reservations.get());
+		Assert.assertEquals(8, allocator.nextId());
+		// next block reserved before current one exhausted
+		Assert.assertEquals(2, store.reservations.get());
+		Assert.assertEquals(9, allocator.nextId());
+		Assert.assertEquals(10, allocator.nextId());
+		Assert.assertEquals(11, allocator.nextId());
+		Assert.assertEquals(2, store.reservations.get());
+		Assert.assertEquals(2, submitted.get());
+	}
+	
+	@Test
+	public void testNoPrefetch() {
+		CountingStore store = new CountingStore();
+		HiLoAllocator allocator = new HiLoAllocator(store, "test", 10, 0, new Executor() {
+			public void execute(Runnable command) {
+				Assert.fail();
+			}
+		});
+		Assert.assertEquals(0, store.reservations.get());
+		for(int i = 1; i <= 25; i++)
+			Assert.assertEquals(i, allocator.nextId());
+		Assert.assertEquals(3, store.reservations.get());
+	}
+	
+	private static class CountingStore extends InMemoryRangeStore {
+		
+		final AtomicInteger reservations = new AtomicInteger();
+
+		@Override
+		public long reserve(String name, int size) {
+			reservations.incrementAndGet();
+			return super.reserve(name, size);
+		}
+	}
+
+}
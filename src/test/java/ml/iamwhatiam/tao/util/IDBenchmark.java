@@ -0,0 +1,105 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * id generator benchmark, not run by unit test, run main manually
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class IDBenchmark {
+	
+	public static void main(String[] args) throws InterruptedException {
+		scalability();
+		encoding();
+	}
+	
+	/**
+	 * compare shared counter and thread local block, ids/ms per thread count
+	 */
+	static void scalability() throws InterruptedException {
+		int cores = Math.min(Runtime.getRuntime().availableProcessors(), 32);
+		throughput(new ID(ID.DEFAULT_EPOCH, 7, 256), 1, 100000);//warm up
+		for(int threads = 1; threads <= cores; threads <<= 1) {
+			long shared = throughput(new ID(ID.DEFAULT_EPOCH, 5), threads, 20000);
+			long local = throughput(new ID(ID.DEFAULT_EPOCH, 6, 256), threads, 20000);
+			System.out.println(String.format("threads: %2d, shared: %6d ids/ms, thread local block: %6d ids/ms", threads, shared, local));
+		}
+	}
+	
+	/**
+	 * encode and decode cost
+	 */
+	static void encoding() {
+		int loop = 1000000;
+		long sum = 0;
+		for(ID.Encoding encoding : ID.Encoding.values()) {
+			char[] buf = new char[encoding.width()];
+			for(int round = 0; round < 2; round++) {//first round warm up
+				long begin = System.nanoTime();
+				for(int i = 0; i < loop; i++)
+					encoding.encode(i * 0x9E3779B97F4A7C15L, buf, 0);
+				long encoded = System.nanoTime();
+				for(int i = 0; i < loop; i++)
+					sum += encoding.decode(buf, 0);
+				long decoded = System.nanoTime();
+				if(round == 1)
+					System.out.println(String.format("%s encode: %.1f ns/op, decode: %.1f ns/op", encoding, 
+							(encoded - begin) / (double) loop, (decoded - encoded) / (double) loop));
+			}
+		}
+		if(sum == 0) System.out.println(sum); // keep decode alive
+	}
+	
+	private static long throughput(final ID generator, int threads, final int loop) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(threads);
+		for(int i = 0; i < threads; i++) {
+			new Thread() {
+				public void run() {
+					try {
+						start.await();
+						for(int j = 0; j < loop; j++)
+							generator.nextId();
+					} catch (InterruptedException e) {
+						return;
+					} finally {
+						end.countDown();
+					}
+				}
+			}.start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		end.await();
+		long elapsed = System.nanoTime() - begin;
+		return threads * loop * 1000000L / elapsed;
+	}
+
+}
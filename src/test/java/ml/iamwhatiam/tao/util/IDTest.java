@@ -0,0 +1,182 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * id generator test
+ * 
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class IDTest {
+	
+	@Test
+	public void testMonotonic() {
+		ID generator = new ID(ID.DEFAULT_EPOCH, 1);
+		long prev = generator.nextId();
+		for(int i = 0; i < 100000; i++) {
+			long id = generator.nextId();
+			Assert.assertTrue(id > prev);
+			prev = id;
+		}
+		Assert.assertEquals(1, (prev >>> ID.NODE_SHIFT) & ID.MAX_NODE);
+	}
+	
+	@Test
+	public void testUnique() throws InterruptedException {
+		final ID generator = new ID(ID.DEFAULT_EPOCH, 2);
+		final int threads = 8, loop = 20000;
+		final Set<Long> ids = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+		final CountDownLatch latch = new CountDownLatch(threads);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		for(int i = 0; i < threads; i++) {
+			new Thread() {
+				public void run() {
+					try {
+						for(int j = 0; j < loop; j++)
+							ids.add(generator.nextId());
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						latch.countDown();
+					}
+				}
+			}.start();
+		}
+		Assert.assertTrue("threads not finished", latch.await(1, TimeUnit.MINUTES));
+		if(failure.get() != null) throw new AssertionError(failure.get());
+		Assert.assertEquals(threads * loop, ids.size());
+	}
+	
+	@Test
+	public void testBlockUnique() throws InterruptedException {
+		final ID generator = new ID(ID.DEFAULT_EPOCH, 4, 64);
+		final int threads = 8, loop = 20000;
+		final Set<Long> ids = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+		final CountDownLatch latch = new CountDownLatch(threads);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		for(int i = 0; i < threads; i++) {
+			new Thread() {
+				public void run() {
+					try {
+						long prev = 0;
+						for(int j = 0; j < loop; j++) {
+							long id = generator.nextId();
+							if((id >>> ID.TIMESTAMP_SHIFT) < (prev >>> ID.TIMESTAMP_SHIFT))
+								throw new AssertionError("timestamp of " + id + " before " + prev);
+							ids.add(id);
+							prev = id;
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						latch.countDown();
+					}
+				}
+			}.start();
+		}
+		Assert.assertTrue("threads not finished", latch.await(1, TimeUnit.MINUTES));
+		if(failure.get() != null) throw new AssertionError(failure.get());
+		Assert.assertEquals(threads * loop, ids.size());
+	}
+	
+	@Test
+	public void testEncoding() {
+		Random random = new Random(42);
+		for(ID.Encoding encoding : ID.Encoding.values()) {
+			String[] texts = new String[1000];
+			long[] ids = new long[texts.length];
+			char[] buf = new char[encoding.width() + 1];
+			for(int i = 0; i < texts.length; i++) {
+				ids[i] = i < 4 ? new long[] {0, -1, Long.MAX_VALUE, Long.MIN_VALUE}[i] : random.nextLong();
+				texts[i] = encoding.encode(ids[i]);
+				Assert.assertEquals(encoding.width(), texts[i].length());
+				Assert.assertEquals(ids[i], encoding.decode(texts[i], 0));
+				Assert.assertEquals(encoding.width() + 1, encoding.encode(ids[i], buf, 1));
+				Assert.assertEquals(ids[i], encoding.decode(buf, 1));
+				StringBuilder sb = new StringBuilder("id:");
+				encoding.encode(ids[i], sb);
+				Assert.assertEquals("id:" + texts[i], sb.toString());
+			}
+			for(int i = 1; i < texts.length; i++) {//unsigned order equals text order
+				int expect = (ids[i - 1] + Long.MIN_VALUE) < (ids[i] + Long.MIN_VALUE) ? -1 : (ids[i - 1] == ids[i] ? 0 : 1);
+				Assert.assertEquals(expect, Integer.signum(texts[i - 1].compareTo(texts[i])));
+			}
+		}
+		Assert.assertEquals(ID.Encoding.CROCKFORD32.decode("0000000000001", 0), ID.Encoding.CROCKFORD32.decode("OOOOOOOOOOOOl", 0));
+		ID generator = ID.getInstance();
+		String first = generator.next();
+		String second = generator.next();
+		Assert.assertTrue(first.compareTo(second) < 0);
+		Assert.assertTrue(Math.abs(generator.getDateTime(second).getTime() - System.currentTimeMillis()) < 1000);
+	}
+	
+	@Test
+	public void testClockMovedBackwards() {
+		final long[] clock = {System.currentTimeMillis()};
+		ID generator = new ID(ID.DEFAULT_EPOCH, 3) {
+			@Override
+			long currentTimeMillis() {
+				return clock[0];
+			}
+			@Override
+			void waitNextTick(long lastTimestamp) {
+				clock[0]++;
+			}
+		};
+		long before = generator.nextId();
+		clock[0] -= 1000;
+		long after = generator.nextId();
+		Assert.assertTrue(after > before);
+		Assert.assertEquals(before >>> ID.TIMESTAMP_SHIFT, after >>> ID.TIMESTAMP_SHIFT);
+		for(int i = 0; i <= ID.MAX_SEQUENCE; i++)
+			after = generator.nextId();
+		Assert.assertTrue(after > before);
+	}
+	
+	@Test
+	public void testDateTime() {
+		long now = System.currentTimeMillis();
+		ID generator = ID.getInstance();
+		long id = generator.nextId();
+		Date date = generator.getDateTime(id);
+		Assert.assertTrue(Math.abs(date.getTime() - now) < 1000);
+		Assert.assertEquals(date, generator.getDateTime(ID.Encoding.BASE62.encode(id)));
+	}
+
+}
@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ml.iamwhatiam.tao.vo.Form;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class InstantiatorTest {
+	
+	@Test
+	public void testNewInstance() {
+		Instantiator<Form> forms = Instantiator.of(Form.class);
+		Assert.assertSame(forms, Instantiator.of(Form.class));
+		Assert.assertNotSame(forms.newInstance(), forms.newInstance());
+		
+		Hidden hidden = Instantiator.of(Hidden.class).newInstance();
+		Assert.assertEquals("default", hidden.value);
+		
+		Inner inner = Instantiator.of(Inner.class).newInstance();
+		Assert.assertNotNull(inner.outer());
+		
+		Immutable immutable = Instantiator.of(Immutable.class).newInstance();
+		Assert.assertNull(immutable.value); // no constructor run
+		Assert.assertNotNull(ReflectionUtils.newInstance(Immutable.class));
+		
+		try {
+			Instantiator.of(Runnable.class);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+		Assert.assertNull(ReflectionUtils.newInstance(Failing.class));
+	}
+	
+	static class Hidden {
+		final String value;
+		private Hidden() {
+			value = "default";
+		}
+	}
+	
+	class Inner {
+		InstantiatorTest outer() {
+			return InstantiatorTest.this;
+		}
+	}
+	
+	static class Immutable {
+		final String value;
+		Immutable(String value) {
+			this.value = value.trim();
+		}
+	}
+	
+	static class Failing {
+		Failing() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
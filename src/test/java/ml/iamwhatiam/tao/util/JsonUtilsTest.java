@@ -0,0 +1,381 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ml.iamwhatiam.tao.domain.Ter;
+import ml.iamwhatiam.tao.vo.Form;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class JsonUtilsTest {
+	
+	@Test
+	public void testStringify() throws Exception {
+		Assert.assertEquals("null", JsonUtils.stringify(null));
+		Assert.assertEquals("\"a\\\"b\\\\c\\n\\u0001\\u2028\"", JsonUtils.stringify("a\"b\\c\n\u0001\u2028"));
+		Assert.assertEquals("[0,-1,9223372036854775807,-9223372036854775808,1.5,2,null]", 
+				JsonUtils.stringify(new Object[] {0, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 1.5d, 2.0f, Double.NaN}));
+		Assert.assertEquals("[1,2]", JsonUtils.stringify(new int[] {1, 2}));
+		Assert.assertEquals("\"ab\"", JsonUtils.stringify(new char[] {'a', 'b'}));
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("list", Arrays.asList(true, false, null));
+		map.put("ter", Ter.POSITIVE);
+		map.put("empty", new LinkedHashMap<String, Object>());
+		map.put("nested", Arrays.asList(Arrays.asList(), new int[0]));
+		Assert.assertEquals("{\"list\":[true,false,null],\"ter\":\"POSITIVE\",\"empty\":{},\"nested\":[[],[]]}", 
+				JsonUtils.stringify(map));
+		
+		Form form = new Form();
+		form.setEpoch(new Date(1000));
+		form.setOid("1\"");
+		Assert.assertEquals("{\"epoch\":1000,\"oid\":\"1\\\"\"}", form.toString());
+		Order cyclic = new Order();
+		cyclic.setAny(Arrays.<Object>asList(cyclic));
+		Assert.assertTrue(cyclic.toString().startsWith(Order.class.getName() + "@"));
+		
+		StringWriter writer = new StringWriter();
+		JsonWriter json = new JsonWriter(writer);
+		json.beginObject().name("a").value(1).name("b").beginArray().value("x").nullValue().endArray().endObject().flush();
+		Assert.assertEquals("{\"a\":1,\"b\":[\"x\",null]}", writer.toString());
+	}
+	
+	@Test
+	public void testUtf8() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 3000; i++)
+			sb.append("\u4e2d\ud83d\ude00\u00e9");
+		String s = sb.toString();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JsonUtils.write(s, out);
+		Assert.assertEquals(JsonUtils.stringify(s), new String(out.toByteArray(), "UTF-8"));
+		Assert.assertArrayEquals(("\"" + s + "\"").getBytes("UTF-8"), out.toByteArray());
+		Assert.assertEquals(s, JsonUtils.parse(new ByteArrayInputStream(out.toByteArray()), String.class));
+		Assert.assertEquals(s + "\"\n", JsonUtils.parse(JsonUtils.stringify(s + "\"\n"), String.class));
+	}
+	
+	@Test
+	public void testParse() throws Exception {
+		String json = "{\"oid\":\"o1\",\"unknown\":{\"a\":[1,{\"b\":null}]},\"epoch\":1000,\"count\":3,\"flags\":[1,2]," + 
+				"\"ter\":\"NEGATIVE\",\"items\":[{\"name\":\"a\\u00e9\",\"price\":1.5,\"tags\":[\"x\"]},{\"name\":\"b\"}]," + 
+				"\"stock\":{\"a\":1,\"b\":-2},\"any\":[1,2.5,\"s\",true,{}],\"active\":true}";
+		Order order = JsonUtils.parse(json, Order.class);
+		Assert.assertEquals("o1", order.getOid());
+		Assert.assertEquals(new Date(1000), order.getEpoch());
+		Assert.assertEquals(3, order.count);
+		Assert.assertArrayEquals(new int[] {1, 2}, order.flags);
+		Assert.assertEquals(Ter.NEGATIVE, order.ter);
+		Assert.assertEquals(2, order.items.size());
+		Assert.assertEquals("a\u00e9", order.items.get(0).name);
+		Assert.assertEquals(1.5, order.items.get(0).price, 0);
+		Assert.assertEquals(Arrays.asList("x"), order.items.get(0).tags);
+		Assert.assertNull(order.items.get(1).tags);
+		Assert.assertEquals(Integer.valueOf(-2), order.stock.get("b"));
+		Assert.assertEquals(Arrays.asList(1L, 2.5d, "s", true, new LinkedHashMap<String, Object>()), order.any);
+		Assert.assertTrue(order.active);
+		
+		String text = JsonUtils.stringify(order);
+		Assert.assertEquals(text, JsonUtils.stringify(JsonUtils.parse(new StringReader(text), Order.class)));
+		Assert.assertEquals(text, JsonUtils.stringify(JsonUtils.parse(text.getBytes("UTF-8"), Order.class)));
+		Assert.assertEquals(Long.MIN_VALUE, JsonUtils.parse(" -9223372036854775808 ", long.class).longValue());
+		Assert.assertArrayEquals(new Ter[] {Ter.NEUTRAL, null}, JsonUtils.parse("[\"NEUTRAL\",null]", Ter[].class));
+		
+		for(String malformed : new String[] {"", "{", "{\"a\" 1}", "[1,]", "[1 2]", "\"a", "{} {}", "tru", "-"}) {
+			try {
+				JsonUtils.parse(malformed, Object.class);
+				Assert.fail(malformed);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+	
+	@Test
+	public void testParseArguments() {
+		Object[] args = JsonUtils.parse("[\"a\",null,[{\"name\":\"x\"}],{\"oid\":\"o\"}]", 
+				new Class<?>[] {String.class, int.class, Item[].class, Form.class});
+		Assert.assertEquals("a", args[0]);
+		Assert.assertEquals(0, args[1]);
+		Assert.assertEquals("x", ((Item[]) args[2])[0].name);
+		Assert.assertEquals("o", ((Form) args[3]).getOid());
+		Assert.assertEquals(0, JsonUtils.parse("[]", new Class<?>[0]).length);
+		for(String malformed : new String[] {"[\"a\"]", "[\"a\",1,2]", "{}"}) {
+			try {
+				JsonUtils.parse(malformed, new Class<?>[] {String.class, int.class});
+				Assert.fail(malformed);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+	
+	@Test
+	public void testCodec() {
+		Point point = new Point();
+		point.x = 1;
+		point.y = -2;
+		Assert.assertEquals("{\"x\":1,\"y\":-2,\"codec\":true}", JsonUtils.stringify(point));
+		Point p = JsonUtils.parse("{\"y\":3,\"z\":[0],\"x\":null}", Point.class);
+		Assert.assertEquals(0, p.x);
+		Assert.assertEquals(3, p.y);
+		Assert.assertEquals("[{\"x\":0,\"y\":3,\"codec\":true}]", JsonUtils.stringify(JsonUtils.parse("[{\"y\":3}]", Point[].class)));
+	}
+	
+	@Test
+	public void testReader() throws Exception {
+		JsonReader reader = new JsonReader(new StringReader("[{\"a\":[]},\"b\",-1e2,false,null]"));
+		reader.beginArray();
+		Assert.assertEquals(JsonReader.Token.BEGIN_OBJECT, reader.peek());
+		reader.skipValue();
+		Assert.assertEquals("b", reader.nextString());
+		Assert.assertEquals(-100, reader.nextInt());
+		Assert.assertFalse(reader.nextBoolean());
+		reader.nextNull();
+		Assert.assertFalse(reader.hasNext());
+		reader.endArray();
+		Assert.assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+		reader.close();
+	}
+	
+	@Test
+	public void testCircular() {
+		List<Object> list = new ArrayList<Object>();
+		list.add(list);
+		try {
+			JsonUtils.stringify(list);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+		}
+	}
+	
+	@Test
+	public void testNesting() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < JsonWriter.MAX_DEPTH; i++)
+			sb.append('[');
+		for(int i = 0; i < JsonWriter.MAX_DEPTH; i++)
+			sb.append(']');
+		Assert.assertTrue(JsonUtils.parse(sb.toString(), Object.class) instanceof List);
+		sb.setLength(0);
+		for(int i = 0; i < 200000; i++)
+			sb.append('[');
+		try {
+			JsonUtils.parse(sb.toString(), Object.class);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("position " + (JsonWriter.MAX_DEPTH + 1)));
+		}
+		JsonReader reader = new JsonReader(sb.toString());
+		try {
+			reader.skipValue();
+			Assert.fail();
+		} catch (IOException e) {
+		}
+	}
+	
+	@Test
+	public void testLongOverflow() throws Exception {
+		Assert.assertEquals(Long.MAX_VALUE, new JsonReader("9223372036854775807").nextLong());
+		Assert.assertEquals(Long.MIN_VALUE, new JsonReader("-9223372036854775808").nextLong());
+		Assert.assertEquals(100, new JsonReader("1e2").nextLong());
+		for(String overflow : new String[] {"9223372036854775808", "-9223372036854775809", "92233720368547758070", "9.223372036854775808e18", "1e19"}) {
+			try {
+				new JsonReader(overflow).nextLong();
+				Assert.fail(overflow);
+			} catch (IOException e) {
+			}
+		}
+	}
+	
+	public static class Order extends Form {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int count;
+		
+		private int[] flags;
+		
+		private Ter ter;
+		
+		private List<Item> items;
+		
+		private Map<String, Integer> stock;
+		
+		private List<Object> any;
+		
+		private boolean active;
+		
+		public int getCount() {
+			return count;
+		}
+		
+		public void setCount(int count) {
+			this.count = count;
+		}
+		
+		public int[] getFlags() {
+			return flags;
+		}
+		
+		public void setFlags(int[] flags) {
+			this.flags = flags;
+		}
+		
+		public Ter getTer() {
+			return ter;
+		}
+		
+		public void setTer(Ter ter) {
+			this.ter = ter;
+		}
+		
+		public List<Item> getItems() {
+			return items;
+		}
+		
+		public void setItems(List<Item> items) {
+			this.items = items;
+		}
+		
+		public Map<String, Integer> getStock() {
+			return stock;
+		}
+		
+		public void setStock(Map<String, Integer> stock) {
+			this.stock = stock;
+		}
+		
+		public List<Object> getAny() {
+			return any;
+		}
+		
+		public void setAny(List<Object> any) {
+			this.any = any;
+		}
+		
+		public boolean isActive() {
+			return active;
+		}
+		
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+		
+	}
+	
+	public static class Item {
+		
+		private String name;
+		
+		private double price;
+		
+		private List<String> tags;
+		
+		public String getName() {
+			return name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+		public double getPrice() {
+			return price;
+		}
+		
+		public void setPrice(double price) {
+			this.price = price;
+		}
+		
+		public List<String> getTags() {
+			return tags;
+		}
+		
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+		
+	}
+	
+	public static class Point {
+		
+		private int x;
+		
+		private int y;
+		
+	}
+	
+	/**
+	 * found by naming convention
+	 */
+	public static class PointJsonCodec implements JsonCodec<Point> {
+		
+		private static final char[] X = JsonWriter.quote("x");
+		
+		private static final char[] Y = JsonWriter.quote("y");
+		
+		private static final char[][] NAMES = {"x".toCharArray(), "y".toCharArray()};
+
+		public void write(JsonWriter writer, Point value) throws IOException {
+			writer.beginObject().name(X).value(value.x).name(Y).value(value.y).name("codec").value(true).endObject();
+		}
+
+		public Point read(JsonReader reader) throws IOException {
+			Point value = new Point();
+			reader.beginObject();
+			while(reader.hasNext()) {
+				switch(reader.nextName(NAMES)) {
+				case 0:
+					if(!reader.nextIfNull()) value.x = reader.nextInt();
+					break;
+				case 1:
+					if(!reader.nextIfNull()) value.y = reader.nextInt();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return value;
+		}
+		
+	}
+
+}
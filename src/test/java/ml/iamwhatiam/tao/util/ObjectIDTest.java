@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class ObjectIDTest {
+	
+	@Test
+	public void testNext() {
+		ObjectID generator = ObjectID.getInstance();
+		Set<String> ids = new HashSet<String>();
+		long now = System.currentTimeMillis() / 1000 * 1000;
+		for(int i = 0; i < 10000; i++) {
+			String id = generator.next();
+			Assert.assertTrue(id.matches("[0-9a-f]{24}"));
+			ids.add(id);
+		}
+		Assert.assertEquals(10000, ids.size());
+		String id = generator.next();
+		Assert.assertTrue(generator.getDateTime(id).getTime() - now <= 1000);
+		Assert.assertTrue(generator.getDateTime(id).getTime() >= now);
+		Assert.assertEquals(generator.getDateTime(id), generator.getDateTime(id.toUpperCase()));
+		Assert.assertEquals(Long.toHexString(0x10000000000L | generator.getFingerprint()).substring(1), id.substring(8, 18));
+	}
+	
+	@Test
+	public void testBinary() {
+		ObjectID generator = ObjectID.getInstance();
+		byte[] binary = new byte[ObjectID.BYTES + 1];
+		Assert.assertEquals(ObjectID.BYTES + 1, generator.next(binary, 1));
+		char[] hex = new char[ObjectID.HEX_LENGTH];
+		Assert.assertEquals(ObjectID.HEX_LENGTH, generator.next(hex, 0));
+		Assert.assertEquals(generator.getDateTime(binary, 1).getTime(), generator.getDateTime(new String(hex)).getTime(), 1000);
+		Assert.assertEquals(new String(hex, 8, 10), String.format("%02x%02x%02x%02x%02x", binary[5], binary[6], binary[7], binary[8], binary[9]));
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ml.iamwhatiam.tao.domain.Taichi;
+import ml.iamwhatiam.tao.util.PropertyAccessor.Property;
+import ml.iamwhatiam.tao.vo.Form;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class PropertyAccessorTest {
+	
+	@Test
+	public void testProperties() {
+		PropertyAccessor<Form> accessor = PropertyAccessor.of(Form.class);
+		Assert.assertSame(accessor, PropertyAccessor.of(Form.class));
+		String[] names = new String[accessor.getProperties().size()];
+		for(int i = 0; i < names.length; i++)
+			names[i] = accessor.getProperties().get(i).getName();
+		Assert.assertArrayEquals(new String[] {"epoch", "elapse", "oid", "alt"}, names);
+		Form form = new Form();
+		accessor.set(form, "oid", "1");
+		Assert.assertEquals("1", form.getOid());
+		Assert.assertEquals("1", accessor.get(form, "oid"));
+		Assert.assertEquals(Date.class, accessor.getProperty("epoch").getType());
+		
+		PropertyAccessor<User> users = PropertyAccessor.of(User.class);
+		Property oid = users.getProperty("oid");
+		Assert.assertEquals(long.class, oid.getType());
+		User user = new User();
+		oid.set(user, 7L);
+		oid.set(user, null);
+		Assert.assertEquals(7L, user.getOid());
+		Assert.assertTrue(users.getProperty("admin").isReadable());
+		Assert.assertFalse(users.getProperty("URL").isWritable());
+		Assert.assertEquals("oid", users.getProperties().get(0).getName());
+	}
+	
+	@Test
+	public void testCopyAndDiff() {
+		User a = new User();
+		a.setOid(1);
+		a.setName("a");
+		a.setTags(new String[] {"x"});
+		User b = new User();
+		PropertyAccessor<User> users = PropertyAccessor.of(User.class);
+		users.copy(a, b);
+		Assert.assertEquals(1, b.getOid());
+		Assert.assertEquals("a", b.getName());
+		Assert.assertTrue(users.diff(a, b).isEmpty());
+		b.setName("b");
+		b.setTags(new String[] {"y"});
+		Assert.assertEquals(Arrays.asList("name", "tags"), users.diff(a, b));
+		
+		Form form = new Form();
+		PropertyAccessor.copyProperties(a, form);
+		Assert.assertNull(form.getOid()); // long is not assignable to String
+		form.setAlt("alt");
+		User other = new User();
+		PropertyAccessor.copyProperties(form, other);
+		Assert.assertEquals(0, other.getOid());
+	}
+	
+	public static class User extends Taichi {
+		
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+		
+		private String[] tags;
+		
+		private boolean admin;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String[] getTags() {
+			return tags;
+		}
+
+		public void setTags(String[] tags) {
+			this.tags = tags;
+		}
+
+		public boolean isAdmin() {
+			return admin;
+		}
+
+		public void setAdmin(boolean admin) {
+			this.admin = admin;
+		}
+		
+		public String getURL() {
+			return "/users/" + oid;
+		}
+		
+		public List<String> names() {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * method cache benchmark, not run by unit test, run main manually
+ * 
+ * @author iMinusMinus
+ * @version 0.0.1
+ *
+ */
+public class ReflectionUtilsBenchmark {
+	
+	public static void main(String[] args) {
+		methodCache();
+	}
+	
+	/**
+	 * hot lookup of method declared two levels up, cached against uncached
+	 */
+	static void methodCache() {
+		List<String> parameterTypes = Collections.emptyList();
+		int times = 200000;
+		for(int round = 0; round < 3; round++) { // warm up
+			long start = System.nanoTime();
+			for(int i = 0; i < times; i++)
+				ReflectionUtils.findMethod(java.util.ArrayList.class, "toString", parameterTypes);
+			long uncached = System.nanoTime() - start;
+			start = System.nanoTime();
+			for(int i = 0; i < times; i++)
+				ReflectionUtils.resolveMethod(java.util.ArrayList.class, "toString", parameterTypes);
+			long cached = System.nanoTime() - start;
+			start = System.nanoTime();
+			for(int i = 0; i < times; i++)
+				ReflectionUtils.resolveMethod(java.util.ArrayList.class, "absent", parameterTypes);
+			long miss = System.nanoTime() - start;
+			if(round == 2)
+				System.out.println(String.format("findMethod: %d ns/op, resolveMethod: %d ns/op, cached miss: %d ns/op", 
+						uncached / times, cached / times, miss / times));
+		}
+	}
+
+}
@@ -23,7 +23,11 @@
  */
 package ml.iamwhatiam.tao.util;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,6 +43,16 @@ public class ReflectionUtilsTest {
 	@Test
 	public void testFindClass() {
 		Assert.assertNotNull(ReflectionUtils.findClass("ml.iamwhatiam.tao.ddd.Table$Column$MySQLDataType"));
+		Assert.assertSame(int.class, ReflectionUtils.findClass("int"));
+		Assert.assertSame(String[].class, ReflectionUtils.findClass("[Ljava.lang.String;"));
+		Assert.assertSame(String[].class, ReflectionUtils.findClass("java.lang.String[]"));
+		Assert.assertSame(int[][].class, ReflectionUtils.findClass("int[][]"));
+		Assert.assertSame(long[].class, ReflectionUtils.findClass("[J"));
+		Assert.assertNull(ReflectionUtils.findClass("ml.iamwhatiam.tao.Absent"));
+		Assert.assertNull(ReflectionUtils.findClass("ml.iamwhatiam.tao.Absent[]"));
+		Assert.assertSame(String.class, ReflectionUtils.findClass("java.lang.String", null));
+		Assert.assertSame(Lazy.class, ReflectionUtils.findClass("ml.iamwhatiam.tao.util.ReflectionUtilsTest$Lazy"));
+		Assert.assertFalse(lazyInitialized);
 	}
 	
 	@Test
@@ -48,4 +62,92 @@ public class ReflectionUtilsTest {
 				ReflectionUtils.invokeMethod("ml.iamwhatiam.tao.ddd.TransformationHelper", "snake2camel", Arrays.asList("java.lang.String"), args));
 	}
 
+	@Test
+	public void testInvokeMethodWithJson() {
+		Method method = ReflectionUtils.resolveMethod(ReflectionUtilsTest.class, "sum", Arrays.asList("java.lang.String", "java.util.List"));
+		Assert.assertEquals("total:6", ReflectionUtils.invokeMethod(method, null, "[\"total:\",[1,2,3]]"));
+		Assert.assertEquals("total:0", ReflectionUtils.invokeMethod(method, null, "[\"total:\",[]]"));
+	}
+	
+	static String sum(String prefix, List<Long> values) {
+		long sum = 0;
+		for(Long value : values)
+			sum += value;
+		return prefix + sum;
+	}
+	
+	@Test
+	public void testResolveMethod() {
+		List<String> parameterTypes = Arrays.asList("java.lang.String");
+		Method method = ReflectionUtils.resolveMethod(ml.iamwhatiam.tao.ddd.TransformationHelper.class, "snake2camel", parameterTypes);
+		Assert.assertNotNull(method);
+		Assert.assertSame(method, ReflectionUtils.resolveMethod(ml.iamwhatiam.tao.ddd.TransformationHelper.class, "snake2camel", 
+				Arrays.asList("java.lang.String")));
+		Assert.assertEquals("camelCase", ReflectionUtils.invokeMethod(method, null, new Object[] {"camel_case"}));
+		Assert.assertNull(ReflectionUtils.resolveMethod(ml.iamwhatiam.tao.ddd.TransformationHelper.class, "snake2camel", 
+				Arrays.asList("int")));
+		// private method is invocable through cached method without further setAccessible
+		Method wrapper = ReflectionUtils.resolveMethod(ml.iamwhatiam.tao.ddd.TransformationHelper.class, "primitive2wrapper", parameterTypes);
+		try {
+			Assert.assertEquals("Integer", wrapper.invoke(null, "int"));
+		} catch (Exception e) {
+			Assert.fail(e.toString());
+		}
+		// method not from cache is made accessible on demand
+		Method uncached = ReflectionUtils.findMethod(ml.iamwhatiam.tao.ddd.TransformationHelper.class, "primitive2wrapper", parameterTypes);
+		Assert.assertEquals("Integer", ReflectionUtils.invokeMethod(uncached, null, new Object[] {"int"}));
+	}
+
+	@Test
+	public void testFindMethodInHierarchy() {
+		Method method = ReflectionUtils.findMethod(Child.class, "greet", Arrays.asList("java.lang.String"));
+		Assert.assertNotNull(method);
+		Assert.assertEquals(Parent.class, method.getDeclaringClass());
+		Assert.assertEquals(1, ReflectionUtils.findMethod(Child.class, "compareTo").size());
+		Assert.assertFalse(ReflectionUtils.findMethod(Child.class, "compareTo", Arrays.asList("ml.iamwhatiam.tao.util.ReflectionUtilsTest$Child")).isBridge());
+		Assert.assertEquals(2, ReflectionUtils.findMethod(Child.class, "greet").size());
+		Comparator<String> comparator = new Comparator<String>() {
+			public int compare(String o1, String o2) {
+				return o1.compareTo(o2);
+			}
+		};
+		Method reversed = ReflectionUtils.findMethod(comparator.getClass(), "reversed", Collections.<String>emptyList());
+		if(reversed != null) // default method since java 8
+			Assert.assertEquals(Comparator.class, reversed.getDeclaringClass());
+	}
+	
+	@Test
+	public void testMethodCache() {
+		List<String> parameterTypes = Collections.emptyList();
+		Method method = ReflectionUtils.resolveMethod(java.util.ArrayList.class, "toString", parameterTypes);
+		Assert.assertEquals(java.util.AbstractCollection.class, method.getDeclaringClass());
+		Assert.assertSame(method, ReflectionUtils.resolveMethod(java.util.ArrayList.class, "toString", parameterTypes));
+		Assert.assertEquals(method, ReflectionUtils.findMethod(java.util.ArrayList.class, "toString", parameterTypes));
+		Assert.assertNull(ReflectionUtils.resolveMethod(java.util.ArrayList.class, "absent", parameterTypes));
+		Assert.assertNull(ReflectionUtils.resolveMethod(java.util.ArrayList.class, "absent", parameterTypes));
+	}
+	
+	static class Parent {
+		String greet(String name) {
+			return "hello " + name;
+		}
+	}
+	
+	static class Child extends Parent implements Comparable<Child> {
+		String greet() {
+			return greet("child");
+		}
+		public int compareTo(Child o) {
+			return 0;
+		}
+	}
+
+	static boolean lazyInitialized;
+	
+	static class Lazy {
+		static {
+			lazyInitialized = true;
+		}
+	}
+
 }
@@ -0,0 +1,73 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.util;
+
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class UUIDv7Test {
+	
+	@Test
+	public void testMonotonic() {
+		UUIDv7 generator = UUIDv7.getInstance();
+		long now = System.currentTimeMillis();
+		UUID prev = generator.next();
+		Assert.assertEquals(7, prev.version());
+		Assert.assertEquals(2, prev.variant());
+		Assert.assertTrue(UUIDv7.getDateTime(prev).getTime() >= now);
+		for(int i = 0; i < 100000; i++) {
+			UUID uuid = generator.next();
+			Assert.assertTrue(uuid.compareTo(prev) > 0);
+			Assert.assertTrue(uuid.toString().compareTo(prev.toString()) > 0);
+			prev = uuid;
+		}
+	}
+	
+	@Test
+	public void testBatch() {
+		UUIDv7 generator = UUIDv7.getInstance();
+		UUID before = generator.next();
+		long[] batch = new long[2000];
+		Assert.assertEquals(1000, generator.nextBatch(batch));
+		UUID prev = before;
+		for(int i = 0; i < batch.length; i += 2) {
+			UUID uuid = new UUID(batch[i], batch[i + 1]);
+			Assert.assertEquals(7, uuid.version());
+			Assert.assertEquals(2, uuid.variant());
+			Assert.assertTrue(uuid.compareTo(prev) > 0);
+			prev = uuid;
+		}
+		Assert.assertTrue(generator.next().compareTo(prev) > 0);
+		Assert.assertEquals(0, generator.nextBatch(batch, 0, 0));
+	}
+
+}
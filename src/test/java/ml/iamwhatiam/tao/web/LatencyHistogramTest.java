@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.web;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class LatencyHistogramTest {
+	
+	@Test
+	public void testBucket() {
+		for(long value = 0; value < 1L << 20; value++) {
+			int index = LatencyHistogram.index(value);
+			Assert.assertTrue(LatencyHistogram.highestEquivalent(index) >= value);
+			Assert.assertTrue(index == 0 || LatencyHistogram.highestEquivalent(index - 1) < value);
+		}
+		Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(LatencyHistogram.HIGHEST));
+	}
+	
+	@Test
+	public void testPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(0, histogram.snapshot().getP99());
+		for(int i = 1; i <= 100000; i++)
+			histogram.record(i);
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		Assert.assertEquals(100000, snapshot.getCount());
+		Assert.assertEquals(100000, snapshot.getMax());
+		Assert.assertEquals(50000.5, snapshot.getMean(), 0.01);
+		assertNear(50000, snapshot.getP50());
+		assertNear(99000, snapshot.getP99());
+		assertNear(99900, snapshot.getP999());
+		
+		Random random = new Random(7);
+		histogram = new LatencyHistogram();
+		for(int i = 0; i < 100000; i++)
+			histogram.record(random.nextInt(100) == 0 ? 500000 : 1000);
+		snapshot = histogram.snapshot();
+		assertNear(1000, snapshot.getP50());
+		assertNear(500000, snapshot.getP999());
+	}
+	
+	private void assertNear(long expected, long actual) {
+		Assert.assertTrue(expected + " ~ " + actual, Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKETS);
+	}
+	
+	@Test
+	public void testRegistry() {
+		LatencyHistogram.reset();
+		LatencyHistogram histogram = LatencyHistogram.of("GET /");
+		Assert.assertSame(histogram, LatencyHistogram.of("GET /"));
+		histogram.record(10);
+		Assert.assertEquals(1, LatencyHistogram.snapshots().get("GET /").getCount());
+		LatencyHistogram.reset();
+	}
+	
+	@Test
+	public void testTemplate() {
+		Assert.assertEquals("GET /users/{id}/orders", MdcFilter.template(request("GET", "/users/123/orders")));
+		Assert.assertEquals("POST /api/v2/order/{id}", MdcFilter.template(request("POST", "/api/v2/order/507f1f77bcf86cd799439011")));
+		Assert.assertEquals("GET /file/{id}/", MdcFilter.template(request("GET", "/file/0AbCdEfGhIj/;jsessionid=1")));
+		Assert.assertEquals("GET /index.html", MdcFilter.template(request("GET", "/index.html")));
+	}
+	
+	private HttpServletRequest request(final String method, final String uri) {
+		return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {HttpServletRequest.class}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method m, Object[] args) {
+				if("getMethod".equals(m.getName())) return method;
+				if("getRequestURI".equals(m.getName())) return uri;
+				return null;
+			}
+		});
+	}
+
+}
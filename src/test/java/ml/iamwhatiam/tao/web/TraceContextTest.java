@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2016 iMinusMinus
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ml.iamwhatiam.tao.web;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author iMinusMinus
+ * @since 2026-10-18
+ * @version 0.0.1
+ *
+ */
+public class TraceContextTest {
+	
+	@Test
+	public void testChild() {
+		TraceContext root = TraceContext.root();
+		Assert.assertEquals("0", root.getRpcId());
+		Assert.assertEquals(0, root.getDepth());
+		TraceContext first = root.child();
+		Assert.assertEquals(root.getTraceId(), first.getTraceId());
+		Assert.assertEquals("0.1", first.getRpcId());
+		Assert.assertEquals("0.1.1", first.child().getRpcId());
+		TraceContext second = first.child();
+		Assert.assertEquals("0.1.2", second.getRpcId());
+		Assert.assertEquals(2, second.getDepth());
+		for(int i = 2; i < 10; i++) root.child();
+		Assert.assertEquals("0.10", root.child().getRpcId());
+	}
+	
+	@Test
+	public void testJoin() {
+		TraceContext joined = TraceContext.join("abc-123", "0.2.7");
+		Assert.assertEquals("abc-123", joined.getTraceId());
+		Assert.assertEquals("0.2.7.1", joined.child().getRpcId());
+		Assert.assertEquals("0", TraceContext.join("abc", null).getRpcId());
+		Assert.assertEquals("0", TraceContext.join("abc", "0..1").getRpcId());
+		Assert.assertEquals("0", TraceContext.join("abc", "0.1.").getRpcId());
+		Assert.assertFalse("abc\r\nX".equals(TraceContext.join("abc\r\nX", "0.1").getTraceId()));
+	}
+	
+	@Test
+	public void testBind() {
+		Assert.assertNull(TraceContext.current());
+		TraceContext context = TraceContext.root();
+		Assert.assertNull(TraceContext.bind(context));
+		Assert.assertSame(context, TraceContext.current());
+		Assert.assertSame(context, TraceContext.bind(null));
+		Assert.assertNull(TraceContext.current());
+	}
+
+	@Test
+	public void testWrap() throws Exception {
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Callable<TraceContext> current = new Callable<TraceContext>() {
+				public TraceContext call() {
+					return TraceContext.current();
+				}
+			};
+			Assert.assertSame(current, TraceContext.wrap(current));
+			TraceContext context = TraceContext.root();
+			TraceContext previous = TraceContext.attach(context);
+			try {
+				Assert.assertSame(context, pool.submit(TraceContext.wrap(current)).get());
+				final AtomicReference<TraceContext> seen = new AtomicReference<TraceContext>();
+				new TraceExecutor(pool).execute(new Runnable() {
+					public void run() {
+						seen.set(TraceContext.current());
+					}
+				});
+				Future<TraceContext> after = pool.submit(current);
+				// worker thread restored after task
+				Assert.assertNull(after.get(1, TimeUnit.SECONDS));
+				Assert.assertSame(context, seen.get());
+			} finally {
+				TraceContext.detach(previous);
+			}
+			Assert.assertNull(TraceContext.current());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}